@@ -0,0 +1,53 @@
+package com.example.dailyreportbackend.benchmark;
+
+import com.example.dailyreportbackend.model.Report;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Dữ liệu báo cáo giả lập, cố định seed để các lần chạy so sánh được với nhau
+final class BenchmarkData {
+
+    static final String[] WORDS = {
+            "deploy", "database", "migration", "frontend", "backend", "review", "meeting", "bugfix",
+            "performance", "login", "report", "search", "index", "cache", "docker", "azure",
+            "testing", "refactor", "security", "token", "pagination", "export", "dashboard", "release"
+    };
+
+    private BenchmarkData() {
+    }
+
+    static List<Report> reports(Long userId, int count) {
+        Random random = new Random(42);
+        LocalDate start = LocalDate.of(2022, 1, 1);
+        List<Report> reports = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Report report = new Report();
+            report.setId((long) i + 1);
+            report.setUserId(userId);
+            report.setTagId((long) (i % 5) + 1);
+            report.setDate(start.plusDays(i % 1000));
+            report.setTitle(sentence(random, 4));
+            report.setContent(sentence(random, 30));
+            report.setIssue(sentence(random, 8));
+            report.setSolution(sentence(random, 8));
+            report.setProgress(random.nextInt(101));
+            report.setRemainingHours(random.nextInt(40) / 2.0);
+            reports.add(report);
+        }
+        return reports;
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.dailyreportbackend.benchmark;
+
+import com.example.dailyreportbackend.security.JwtAuthenticationCache;
+import com.example.dailyreportbackend.security.JwtRequestFilter;
+import com.example.dailyreportbackend.security.JwtUtil;
+import com.example.dailyreportbackend.security.TokenRevocationRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Chi phí của JwtRequestFilter cho request mang token đã nằm trong cache (trường hợp phổ biến nhất).
+// Chạy kèm "-prof gc" để xem số byte cấp phát trên mỗi request (gc.alloc.rate.norm)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtRequestFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private JwtRequestFilter filter;
+    private MockHttpServletRequest protectedRequest;
+    private MockHttpServletRequest publicRequest;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() throws Exception {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "benchmark-secret-key-benchmark-secret-key");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", TimeUnit.HOURS.toMillis(1));
+        TokenRevocationRegistry revocationRegistry = new TokenRevocationRegistry();
+        ReflectionTestUtils.setField(revocationRegistry, "expiration", TimeUnit.HOURS.toMillis(1));
+
+        filter = new JwtRequestFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(filter, "jwtAuthenticationCache",
+                new JwtAuthenticationCache(1000, Duration.ofMinutes(5),
+                        new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class)));
+        ReflectionTestUtils.setField(filter, "tokenRevocationRegistry", revocationRegistry);
+        ReflectionTestUtils.setField(filter, "stateless", true);
+        ReflectionTestUtils.setField(filter, "revocationCheckEnabled", true);
+
+        String token = jwtUtil.generateToken("bench@example.com", 42L);
+        protectedRequest = bearerRequest("/api/reports", token);
+        // Frontend gửi token cho mọi request, kể cả API công khai
+        publicRequest = bearerRequest("/api/tags", token);
+        response = new MockHttpServletResponse();
+
+        // Request đầu tiên parse token và đưa vào cache
+        filter.doFilter(protectedRequest, response, NO_OP_CHAIN);
+        SecurityContextHolder.clearContext();
+    }
+
+    private static MockHttpServletRequest bearerRequest(String uri, String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setServletPath(uri);
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    @Benchmark
+    public Object protectedEndpoint() throws Exception {
+        filter.doFilter(protectedRequest, response, NO_OP_CHAIN);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    @Benchmark
+    public Object publicEndpoint() throws Exception {
+        filter.doFilter(publicRequest, response, NO_OP_CHAIN);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
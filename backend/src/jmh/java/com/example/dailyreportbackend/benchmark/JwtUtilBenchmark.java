@@ -0,0 +1,62 @@
+package com.example.dailyreportbackend.benchmark;
+
+import com.example.dailyreportbackend.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+// Chi phí tạo/parse/verify JWT trên mỗi request đã xác thực
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private static final String EMAIL = "bench@example.com";
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "benchmark-secret-key-benchmark-secret-key");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", TimeUnit.HOURS.toMillis(1));
+        token = jwtUtil.generateToken(EMAIL, 42L);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(EMAIL, 42L);
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtUtil.validateToken(token, EMAIL);
+    }
+
+    @Benchmark
+    public Long extractUserId() {
+        return jwtUtil.extractUserId(token);
+    }
+
+    // Đường đi của JwtRequestFilter: parse một lần rồi dùng lại claims
+    @Benchmark
+    public Boolean parseOnceThenValidate() {
+        Claims claims = jwtUtil.parseToken(token);
+        return jwtUtil.validateToken(claims, EMAIL) && jwtUtil.extractUserId(claims) != null;
+    }
+}
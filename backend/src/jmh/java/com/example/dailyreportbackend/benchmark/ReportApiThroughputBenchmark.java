@@ -0,0 +1,193 @@
+package com.example.dailyreportbackend.benchmark;
+
+import com.example.dailyreportbackend.DailyReportBackendApplication;
+import com.example.dailyreportbackend.model.Report;
+import com.example.dailyreportbackend.reactive.ReactiveReportApplication;
+import com.example.dailyreportbackend.security.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Thông lượng API báo cáo qua HTTP thật: MVC + JPA (Tomcat, virtual thread, Hikari) so với WebFlux + R2DBC (Netty, r2dbc-pool).
+// "mvc-platform" là bản MVC với pool luồng Tomcat thay cho virtual thread (spring.threads.virtual.enabled=false).
+// Cả hai chạy trên H2 in-memory chế độ MySQL với pool 10 kết nối, JWT stateless và cùng dữ liệu; mỗi luồng JMH là một client
+// gửi request tuần tự, nên -t là số request đồng thời. Client và server dùng chung CPU, chỉ so sánh tương đối giữa hai bản
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(32)
+@Fork(1)
+public class ReportApiThroughputBenchmark {
+
+    private static final long USER_ID = 1L;
+    // Báo cáo tạo trong lúc đo thuộc user khác để danh sách của USER_ID giữ nguyên kích thước
+    private static final long WRITER_USER_ID = 2L;
+    private static final int MAX_COLUMN_LENGTH = 255;
+
+    @Param({"mvc", "mvc-platform", "reactive"})
+    private String stack;
+
+    @Param({"200"})
+    private int reportCount;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private ObjectMapper objectMapper;
+    private String baseUrl;
+    private String authorization;
+    private String writerAuthorization;
+    private List<Long> reportIds;
+
+    @Setup
+    public void setUp() throws Exception {
+        context = switch (stack) {
+            case "reactive" -> startReactive();
+            case "mvc-platform" -> startMvc("--spring.threads.virtual.enabled=false");
+            default -> startMvc();
+        };
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/reports";
+        JwtUtil jwtUtil = context.getBean(JwtUtil.class);
+        authorization = "Bearer " + jwtUtil.generateToken("bench@example.com", USER_ID);
+        writerAuthorization = "Bearer " + jwtUtil.generateToken("writer@example.com", WRITER_USER_ID);
+        objectMapper = context.getBean(ObjectMapper.class);
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        reportIds = new ArrayList<>(reportCount);
+        for (Report report : BenchmarkData.reports(USER_ID, reportCount)) {
+            report.setId(null);
+            report.setContent(truncate(report.getContent()));
+            HttpResponse<String> response = send(post(authorization, report));
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("Seeding failed with status " + response.statusCode());
+            }
+            reportIds.add(objectMapper.readValue(response.body(), Report.class).getId());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public int listReports() throws Exception {
+        return expect(200, send(get(baseUrl, "application/json")));
+    }
+
+    // Bản NDJSON: MVC ghi theo trang keyset trên virtual thread, WebFlux ghi Flux từ R2DBC theo demand của socket
+    @Benchmark
+    public int streamReports() throws Exception {
+        return expect(200, send(get(baseUrl, "application/x-ndjson")));
+    }
+
+    @Benchmark
+    public int getReport() throws Exception {
+        Long id = reportIds.get(ThreadLocalRandom.current().nextInt(reportIds.size()));
+        return expect(200, send(get(baseUrl + "/" + id, "application/json")));
+    }
+
+    @Benchmark
+    public int createReport() throws Exception {
+        Report report = new Report();
+        report.setTitle("benchmark report");
+        report.setContent("created while measuring throughput");
+        report.setDate(LocalDate.of(2024, 1, 1).plusDays(ThreadLocalRandom.current().nextInt(365)));
+        report.setTagId((long) ThreadLocalRandom.current().nextInt(1, 6));
+        report.setProgress(ThreadLocalRandom.current().nextInt(101));
+        return expect(201, send(post(writerAuthorization, report)));
+    }
+
+    private ConfigurableApplicationContext startMvc(String... extra) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:bench;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.sql.init.mode=never"));
+        args.addAll(List.of(extra));
+        return new SpringApplicationBuilder(DailyReportBackendApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run(commonArgs(args.toArray(String[]::new)));
+    }
+
+    // Profile "h2" (src/test/resources/application-h2.properties) tạo lược đồ cho R2DBC
+    private ConfigurableApplicationContext startReactive() {
+        return new SpringApplicationBuilder(ReactiveReportApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles(ReactiveReportApplication.PROFILE, "h2")
+                .run(commonArgs());
+    }
+
+    // Tham số dòng lệnh để ghi đè application.properties (defaultProperties có độ ưu tiên thấp hơn)
+    private static String[] commonArgs(String... extra) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.flyway.enabled=false",
+                "--jwt.stateless=true",
+                "--logging.level.root=WARN",
+                "--logging.level.com.example.dailyreportbackend=WARN"));
+        args.addAll(List.of(extra));
+        return args.toArray(String[]::new);
+    }
+
+    private HttpRequest get(String url, String accept) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Authorization", authorization)
+                .header("Accept", accept)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String token, Report report) throws Exception {
+        return HttpRequest.newBuilder(URI.create(baseUrl))
+                .header("Authorization", token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(report)))
+                .build();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static int expect(int status, HttpResponse<String> response) {
+        if (response.statusCode() != status) {
+            throw new IllegalStateException("Expected " + status + " but got " + response.statusCode());
+        }
+        return response.body().length();
+    }
+
+    private static String truncate(String value) {
+        return value.length() > MAX_COLUMN_LENGTH ? value.substring(0, MAX_COLUMN_LENGTH) : value;
+    }
+}
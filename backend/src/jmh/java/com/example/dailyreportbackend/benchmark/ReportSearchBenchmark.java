@@ -0,0 +1,148 @@
+package com.example.dailyreportbackend.benchmark;
+
+import com.example.dailyreportbackend.model.Report;
+import com.example.dailyreportbackend.search.ReportSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Tìm kiếm theo từ khóa: truy vấn LIKE (đường dự phòng) so với chỉ mục trong bộ nhớ + nạp theo id
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportSearchBenchmark {
+
+    private static final long USER_ID = 1L;
+
+    // Cùng điều kiện với ReportRepository.searchByKeyword
+    private static final String LIKE_SQL = "SELECT id, title, content, `date`, tag_id, user_id, progress, remaining_hours, issue, solution " +
+            "FROM report WHERE user_id = ? AND (" +
+            "LOWER(title) LIKE LOWER(CONCAT('%', ?, '%')) OR " +
+            "LOWER(content) LIKE LOWER(CONCAT('%', ?, '%')) OR " +
+            "LOWER(issue) LIKE LOWER(CONCAT('%', ?, '%')) OR " +
+            "LOWER(solution) LIKE LOWER(CONCAT('%', ?, '%')))";
+
+    private static final String BY_IDS_SQL = "SELECT id, title, content, `date`, tag_id, user_id, progress, remaining_hours, issue, solution " +
+            "FROM report WHERE id = ANY(?)";
+
+    @Param({"1000", "10000"})
+    private int reportCount;
+
+    @Param({"deploy", "performance migration"})
+    private String keyword;
+
+    @Param({"20"})
+    private int pageSize;
+
+    private Connection connection;
+    private PreparedStatement likeStatement;
+    private PreparedStatement byIdsStatement;
+    private ReportSearchIndex searchIndex;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:search;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS report");
+            statement.execute("CREATE TABLE report (id BIGINT PRIMARY KEY, title VARCHAR(255), content VARCHAR(1024), " +
+                    "`date` DATE, tag_id BIGINT, user_id BIGINT, progress INT, remaining_hours DOUBLE, " +
+                    "issue VARCHAR(255), solution VARCHAR(255))");
+            statement.execute("CREATE INDEX idx_report_user_date ON report (user_id, `date`)");
+        }
+
+        List<Report> reports = BenchmarkData.reports(USER_ID, reportCount);
+        searchIndex = new ReportSearchIndex();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO report VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (Report report : reports) {
+                insert.setLong(1, report.getId());
+                insert.setString(2, report.getTitle());
+                insert.setString(3, report.getContent());
+                insert.setDate(4, Date.valueOf(report.getDate()));
+                insert.setLong(5, report.getTagId());
+                insert.setLong(6, report.getUserId());
+                insert.setInt(7, report.getProgress());
+                insert.setDouble(8, report.getRemainingHours());
+                insert.setString(9, report.getIssue());
+                insert.setString(10, report.getSolution());
+                insert.addBatch();
+                searchIndex.index(report);
+            }
+            insert.executeBatch();
+        }
+        searchIndex.markReady();
+
+        likeStatement = connection.prepareStatement(LIKE_SQL);
+        byIdsStatement = connection.prepareStatement(BY_IDS_SQL);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public List<Long> likeQuery() throws SQLException {
+        likeStatement.setLong(1, USER_ID);
+        for (int i = 2; i <= 5; i++) {
+            likeStatement.setString(i, keyword);
+        }
+        return readIds(likeStatement);
+    }
+
+    @Benchmark
+    public List<Long> indexSearch() {
+        return searchIndex.search(USER_ID, keyword);
+    }
+
+    // Đường đi của searchReportsByKeywordPaged: xếp hạng trên chỉ mục rồi chỉ nạp một trang từ DB
+    @Benchmark
+    public List<Long> indexSearchAndLoadPage() throws SQLException {
+        List<Long> rankedIds = searchIndex.search(USER_ID, keyword);
+        List<Long> page = rankedIds.subList(0, Math.min(pageSize, rankedIds.size()));
+        if (page.isEmpty()) {
+            return Collections.emptyList();
+        }
+        byIdsStatement.setArray(1, connection.createArrayOf("BIGINT", page.toArray()));
+        return readIds(byIdsStatement);
+    }
+
+    private List<Long> readIds(PreparedStatement statement) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getLong(1));
+                // Đọc các cột văn bản như khi Hibernate dựng entity
+                rs.getString(2);
+                rs.getString(3);
+                rs.getString(9);
+                rs.getString(10);
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.dailyreportbackend.benchmark;
+
+import com.example.dailyreportbackend.dto.ReportSummary;
+import com.example.dailyreportbackend.model.Report;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serialize danh sách báo cáo đầy đủ so với bản rút gọn trả về ở các endpoint danh sách
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<Report> reports;
+    private List<ReportSummary> summaries;
+
+    @Setup
+    public void setUp() {
+        // Cấu hình gần với ObjectMapper của Spring Boot (có JavaTimeModule cho LocalDate)
+        objectMapper = JsonMapper.builder().findAndAddModules().build();
+        reports = BenchmarkData.reports(1L, size);
+        summaries = reports.stream()
+                .map(r -> new ReportSummary(r.getId(), r.getTitle(), r.getDate(), r.getTagId(), r.getTagIds(),
+                        r.getUserId(), r.getProgress(), r.getRemainingHours()))
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] serializeReports() throws Exception {
+        return objectMapper.writeValueAsBytes(reports);
+    }
+
+    @Benchmark
+    public byte[] serializeSummaries() throws Exception {
+        return objectMapper.writeValueAsBytes(summaries);
+    }
+}
@@ -1,12 +1,26 @@
 package com.example.dailyreportbackend;
 
+import com.example.dailyreportbackend.reactive.ReactiveReportApplication;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
+import org.springframework.core.env.Profiles;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
 
-@SpringBootApplication
+// R2DBC chỉ dùng cho biến thể reactive; ReactiveTransactionManager của nó sẽ thay mất JpaTransactionManager
+@SpringBootApplication(exclude = {R2dbcAutoConfiguration.class, R2dbcTransactionManagerAutoConfiguration.class})
 public class DailyReportBackendApplication {
 
+    // Profile "reactive" (SPRING_PROFILES_ACTIVE hoặc --spring.profiles.active) chạy API báo cáo trên WebFlux + R2DBC
     public static void main(String[] args) {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+        if (environment.acceptsProfiles(Profiles.of(ReactiveReportApplication.PROFILE))) {
+            ReactiveReportApplication.main(args);
+            return;
+        }
         SpringApplication.run(DailyReportBackendApplication.class, args);
     }
 } 
\ No newline at end of file
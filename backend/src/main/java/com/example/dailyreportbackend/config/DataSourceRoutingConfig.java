@@ -0,0 +1,83 @@
+package com.example.dailyreportbackend.config;
+
+import com.example.dailyreportbackend.datasource.ReadYourWritesTracker;
+import com.example.dailyreportbackend.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// Tách đọc/ghi khi bật datasource.routing.enabled: ghi và đọc cần nhất quán vào primary (spring.datasource.*),
+// transaction readOnly của user đã đăng nhập vào các replica trong datasource.replica.urls (xem ReplicaRoutingDataSource)
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "datasource.routing.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    // Pool primary dựng từ spring.datasource.* và spring.datasource.hikari.* như cấu hình mặc định; Flyway chạy trên pool này
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    // Replica dùng cùng kích thước pool và timeout với primary, kết nối ở chế độ read-only
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            DataSourceProperties properties,
+            @Value("${datasource.replica.urls:}") List<String> replicaUrls,
+            @Value("${datasource.replica.username:${spring.datasource.username}}") String username,
+            @Value("${datasource.replica.password:${spring.datasource.password}}") String password,
+            ReadYourWritesTracker readYourWritesTracker,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setMaximumPoolSize(primaryDataSource.getMaximumPoolSize());
+            replica.setMinimumIdle(primaryDataSource.getMinimumIdle());
+            replica.setConnectionTimeout(primaryDataSource.getConnectionTimeout());
+            replica.setReadOnly(true);
+            // Pool replica không phải bean nên tự gắn metrics hikaricp.* (tag pool=replica-N)
+            meterRegistry.ifAvailable(registry -> replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            replicas.add(replica);
+        }
+        if (replicas.isEmpty()) {
+            log.warn("Datasource routing enabled but datasource.replica.urls is empty, all queries go to the primary");
+        } else {
+            log.info("Datasource routing enabled with {} replica(s)", replicas.size());
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, readYourWritesTracker);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
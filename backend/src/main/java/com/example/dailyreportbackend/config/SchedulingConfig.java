@@ -0,0 +1,10 @@
+package com.example.dailyreportbackend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Bật @Scheduled cho các job bảo trì (vd. ReportPartitionMaintenance)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
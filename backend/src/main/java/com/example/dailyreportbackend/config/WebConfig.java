@@ -0,0 +1,20 @@
+package com.example.dailyreportbackend.config;
+
+import com.example.dailyreportbackend.web.ReportListEtagInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private ReportListEtagInterceptor reportListEtagInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(reportListEtagInterceptor)
+                .addPathPatterns("/api/reports", "/api/reports/paged", "/api/reports/range", "/api/reports/filter", "/api/reports/search", "/api/reports/search/paged");
+    }
+}
@@ -2,7 +2,9 @@ package com.example.dailyreportbackend.controller;
 
 import com.example.dailyreportbackend.dto.LoginRequest;
 import com.example.dailyreportbackend.dto.AuthResponse;
+import com.example.dailyreportbackend.logging.LogMarkers;
 import com.example.dailyreportbackend.service.AuthService;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
@@ -10,7 +12,10 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "${cors.allowed.origins}")
@@ -20,25 +25,28 @@ public class AuthController {
     private AuthService authService;
 
     @PostMapping("/register")
-    public ResponseEntity<AuthResponse> register(@RequestBody LoginRequest request) {
+    public CompletableFuture<ResponseEntity<AuthResponse>> register(@RequestBody LoginRequest request) {
         try {
-            System.out.println("Register request for email: " + request.getEmail());
-            AuthResponse response = authService.register(request);
-            return ResponseEntity.ok(response);
+            log.info("Register request for email: {}", request.getEmail());
+            // Request thread được trả lại trong lúc băm mật khẩu; lỗi bất đồng bộ cũng đi qua GlobalExceptionHandler
+            return authService.register(request)
+                    .whenComplete((response, e) -> logFailure("Registration error", e))
+                    .thenApply(ResponseEntity::ok);
         } catch (Exception e) {
-            System.out.println("Registration error: " + e.getMessage());
+            log.warn("Registration error: {}", e.getMessage());
             throw e; // Để GlobalExceptionHandler xử lý
         }
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@RequestBody LoginRequest request) {
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@RequestBody LoginRequest request) {
         try {
-            System.out.println("Login request for email: " + request.getEmail());
-            AuthResponse response = authService.login(request);
-            return ResponseEntity.ok(response);
+            log.debug(LogMarkers.SAMPLED, "Login request for email: {}", request.getEmail());
+            return authService.login(request)
+                    .whenComplete((response, e) -> logFailure("Login error", e))
+                    .thenApply(ResponseEntity::ok);
         } catch (Exception e) {
-            System.out.println("Login error: " + e.getMessage());
+            log.warn("Login error: {}", e.getMessage());
             throw e; // Để GlobalExceptionHandler xử lý
         }
     }
@@ -47,26 +55,34 @@ public class AuthController {
     public ResponseEntity<Map<String, String>> forgotPassword(@RequestBody Map<String, String> request) {
         try {
             String email = request.get("email");
-            System.out.println("Forgot password request for email: " + email);
+            log.info("Forgot password request for email: {}", email);
             Map<String, String> response = authService.forgotPassword(email);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
-            System.out.println("Forgot password error: " + e.getMessage());
+            log.warn("Forgot password error: {}", e.getMessage());
             throw e; // Để GlobalExceptionHandler xử lý
         }
     }
 
     @PostMapping("/reset-password")
-    public ResponseEntity<Map<String, String>> resetPassword(@RequestBody Map<String, String> request) {
+    public CompletableFuture<ResponseEntity<Map<String, String>>> resetPassword(@RequestBody Map<String, String> request) {
         try {
             String token = request.get("token");
             String newPassword = request.get("newPassword");
-            System.out.println("Reset password request with token");
-            Map<String, String> response = authService.resetPassword(token, newPassword);
-            return ResponseEntity.ok(response);
+            log.info("Reset password request with token");
+            return authService.resetPassword(token, newPassword)
+                    .whenComplete((response, e) -> logFailure("Reset password error", e))
+                    .thenApply(ResponseEntity::ok);
         } catch (Exception e) {
-            System.out.println("Reset password error: " + e.getMessage());
+            log.warn("Reset password error: {}", e.getMessage());
             throw e; // Để GlobalExceptionHandler xử lý
         }
     }
+
+    private void logFailure(String message, Throwable e) {
+        if (e != null) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            log.warn("{}: {}", message, cause.getMessage());
+        }
+    }
 } 
\ No newline at end of file
@@ -1,21 +1,47 @@
 package com.example.dailyreportbackend.controller;
 
+import com.example.dailyreportbackend.dto.ReportBatchResult;
+import com.example.dailyreportbackend.dto.ReportCursor;
+import com.example.dailyreportbackend.dto.ReportExportFormat;
+import com.example.dailyreportbackend.dto.ReportIngestionStatus;
+import com.example.dailyreportbackend.dto.ReportStatsResponse;
+import com.example.dailyreportbackend.dto.ReportSummary;
+import com.example.dailyreportbackend.exception.TooManyRequestsException;
+import com.example.dailyreportbackend.logging.LogMarkers;
 import com.example.dailyreportbackend.model.Report;
+import com.example.dailyreportbackend.security.JwtUserPrincipal;
+import com.example.dailyreportbackend.service.ReportIngestionQueue;
 import com.example.dailyreportbackend.service.ReportService;
+import com.example.dailyreportbackend.service.ReportStatsService;
+import com.example.dailyreportbackend.service.ReportVersionRegistry;
+import com.example.dailyreportbackend.web.ExportConcurrencyLimiter;
+import com.example.dailyreportbackend.web.ReportChangeStream;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/reports")
 @CrossOrigin(origins = "${cors.allowed.origins}")
@@ -24,17 +50,41 @@ public class ReportController {
     @Autowired
     private ReportService reportService;
 
+    @Autowired
+    private ReportStatsService reportStatsService;
+
+    @Autowired
+    private ReportVersionRegistry reportVersionRegistry;
+
+    @Autowired
+    private ReportIngestionQueue reportIngestionQueue;
+
+    @Autowired
+    private ReportChangeStream reportChangeStream;
+
+    @Autowired
+    private ExportConcurrencyLimiter exportConcurrencyLimiter;
+
+    @Value("${report.batch.max-size:1000}")
+    private int batchMaxSize;
+
+    private static final int DEFAULT_STATS_DAYS = 90;
+    private static final String INGESTION_TICKET_HEADER = "X-Report-Ticket";
+
     @GetMapping
-    public ResponseEntity<List<Report>> getReports(
-            @RequestParam Long userId,
-            @RequestParam(required = false) String date,
+    public ResponseEntity<List<ReportSummary>> getReports(
+            @AuthenticationPrincipal JwtUserPrincipal principal,
+            @RequestParam(name = "userId", required = false) Long requestedUserId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
             @RequestParam(required = false) Long tagId) {
+        Long userId = resolveUserId(principal, requestedUserId);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
         try {
-            System.out.println("Getting reports for userId: " + userId + 
-                    (date != null ? ", date: " + date : "") + 
-                    (tagId != null ? ", tagId: " + tagId : ""));
+            log.debug(LogMarkers.SAMPLED, "Getting reports for userId: {}, date: {}, tagId: {}", userId, date, tagId);
             
-            List<Report> reports;
+            List<ReportSummary> reports;
             if (date != null) {
                 reports = reportService.getReportsByUserIdAndDate(userId, date);
             } else if (tagId != null) {
@@ -44,31 +94,82 @@ public class ReportController {
             }
             return ResponseEntity.ok(reports);
         } catch (Exception e) {
-            System.out.println("Error getting reports: " + e.getMessage());
+            log.warn("Error getting reports: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
 
+    // Cùng dữ liệu với GET /api/reports (mới nhất trước) khi client gửi Accept: application/x-ndjson. Các dòng được ghi
+    // dần theo từng trang keyset, luồng ghi (virtual thread) tự dừng khi client đọc chậm, không dựng cả danh sách trong heap
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamReports(
+            @AuthenticationPrincipal JwtUserPrincipal principal,
+            @RequestParam(name = "userId", required = false) Long requestedUserId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) Long tagId) {
+        Long userId = resolveUserId(principal, requestedUserId);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        log.debug(LogMarkers.SAMPLED, "Streaming reports for userId: {}, date: {}, tagId: {}", userId, date, tagId);
+
+        StreamingResponseBody body = out -> reportService.streamReportSummaries(userId, date, tagId, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // Sự kiện thay đổi báo cáo (created/deleted) dạng Server-Sent Events, thay cho việc client gọi lại danh sách định kỳ.
+    // Kết nối bị đóng (timeout, client đọc chậm) thì client kết nối lại và tải lại danh sách một lần
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamReportChanges(
+            @AuthenticationPrincipal JwtUserPrincipal principal,
+            @RequestParam(name = "userId", required = false) Long requestedUserId) {
+        Long userId = resolveUserId(principal, requestedUserId);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        log.debug(LogMarkers.SAMPLED, "Subscribing to report changes for userId: {}", userId);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                // Tắt buffer của nginx để sự kiện tới client ngay
+                .header("X-Accel-Buffering", "no")
+                .body(reportChangeStream.subscribe(userId));
+    }
+
     @GetMapping("/paged")
     public ResponseEntity<Map<String, Object>> getPagedReports(
-            @RequestParam Long userId,
+            @AuthenticationPrincipal JwtUserPrincipal principal,
+            @RequestParam(name = "userId", required = false) Long requestedUserId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "5") int size,
-            @RequestParam(required = false) String date,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
             @RequestParam(required = false) Long tagId,
             @RequestParam(defaultValue = "date") String sortBy,
-            @RequestParam(defaultValue = "desc") String sortDir) {
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(defaultValue = "offset") String mode,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        Long userId = resolveUserId(principal, requestedUserId);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
         try {
-            System.out.println("Getting paged reports for userId: " + userId + 
-                    ", page: " + page + 
-                    ", size: " + size +
-                    (date != null ? ", date: " + date : "") + 
-                    (tagId != null ? ", tagId: " + tagId : ""));
+            log.debug(LogMarkers.SAMPLED, "Getting paged reports for userId: {}, page: {}, size: {}, date: {}, tagId: {}",
+                    userId, page, size, date, tagId);
+            
+            // Chế độ cursor chỉ áp dụng khi sắp xếp theo ngày; lọc theo một ngày cụ thể vẫn dùng offset
+            if ((mode.equalsIgnoreCase("cursor") || cursor != null) && date == null) {
+                if (!sortBy.equals("date")) {
+                    return ResponseEntity.badRequest().build();
+                }
+                return getReportsByCursor(userId, tagId, cursor, size, sortDir.equalsIgnoreCase("asc"), includeTotal);
+            }
             
             Sort.Direction direction = sortDir.equalsIgnoreCase("asc") ? Sort.Direction.ASC : Sort.Direction.DESC;
             Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
             
-            Page<Report> reportPage;
+            Page<ReportSummary> reportPage;
             try {
                 if (date != null && tagId != null) {
                     reportPage = reportService.getReportsByUserIdAndDateAndTagIdPaged(userId, date, tagId, pageable);
@@ -80,7 +181,7 @@ public class ReportController {
                     reportPage = reportService.getReportsByUserIdPaged(userId, pageable);
                 }
                 
-                List<Report> reports = reportPage.getContent();
+                List<ReportSummary> reports = reportPage.getContent();
                 
                 Map<String, Object> response = new HashMap<>();
                 response.put("reports", reports);
@@ -90,43 +191,122 @@ public class ReportController {
                 
                 return ResponseEntity.ok(response);
             } catch (Exception e) {
-                System.out.println("Database error in paged reports: " + e.getMessage());
-                e.printStackTrace();
+                log.error("Database error in paged reports", e);
                 return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
             }
         } catch (Exception e) {
-            System.out.println("Error getting paged reports: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error getting paged reports", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    private ResponseEntity<Map<String, Object>> getReportsByCursor(
+            Long userId, Long tagId, String cursor, int size, boolean ascending, boolean includeTotal) {
+        ReportCursor afterCursor;
+        try {
+            afterCursor = cursor != null ? ReportCursor.decode(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid cursor: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+
+        Slice<ReportSummary> reportSlice = reportService.getReportsByUserIdAfterCursor(userId, tagId, afterCursor, size, ascending);
+        List<ReportSummary> reports = reportSlice.getContent();
+
+        String nextCursor = null;
+        if (reportSlice.hasNext() && !reports.isEmpty()) {
+            // Báo cáo cuối không có ngày vẫn cho cursor hợp lệ (date rỗng), không được cắt trang còn lại
+            nextCursor = ReportCursor.of(reports.get(reports.size() - 1)).encode();
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("reports", reports);
+        response.put("nextCursor", nextCursor);
+        response.put("hasNext", nextCursor != null);
+        // Tổng số chỉ được đếm khi client yêu cầu
+        if (includeTotal) {
+            response.put("totalItems", tagId != null
+                    ? reportService.countReportsByUserIdAndTagId(userId, tagId)
+                    : reportService.countReportsByUserId(userId));
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    // Export toàn bộ báo cáo của user, dữ liệu được ghi dần ra response thay vì dựng cả danh sách trong heap
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportReports(
+            @AuthenticationPrincipal JwtUserPrincipal principal,
+            @RequestParam(name = "userId", required = false) Long requestedUserId,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        Long userId = resolveUserId(principal, requestedUserId);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        ReportExportFormat exportFormat;
+        try {
+            exportFormat = ReportExportFormat.from(format);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid export format: {}", format);
+            return ResponseEntity.badRequest().build();
+        }
+        if (!exportConcurrencyLimiter.tryAcquire()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .build();
+        }
+        log.info("Exporting reports for userId: {}, format: {}", userId, exportFormat);
+
+        // Permit được trả khi ghi xong, không phải khi controller trả về
+        StreamingResponseBody body = out -> {
+            try {
+                reportService.exportReports(userId, exportFormat, out);
+            } finally {
+                exportConcurrencyLimiter.release();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"reports-" + userId + "." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    // Mỗi từ trong searchTerm khớp như chuỗi con ("log" khớp "catalog"), báo cáo phải chứa đủ các từ
+    // nhưng không cần liền nhau như cụm từ; kết quả xếp theo độ liên quan (xem ReportSearchIndex)
     @GetMapping("/search")
     public ResponseEntity<List<Report>> searchReports(
-            @RequestParam Long userId,
+            @AuthenticationPrincipal JwtUserPrincipal principal,
+            @RequestParam(name = "userId", required = false) Long requestedUserId,
             @RequestParam String searchTerm) {
+        Long userId = resolveUserId(principal, requestedUserId);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
         try {
-            System.out.println("Searching reports for userId: " + userId + ", term: " + searchTerm);
+            log.debug(LogMarkers.SAMPLED, "Searching reports for userId: {}, term: {}", userId, searchTerm);
             
             List<Report> reports = reportService.searchReportsByKeyword(userId, searchTerm);
             return ResponseEntity.ok(reports);
         } catch (Exception e) {
-            System.out.println("Error searching reports: " + e.getMessage());
+            log.warn("Error searching reports: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
 
     @GetMapping("/search/paged")
     public ResponseEntity<Map<String, Object>> searchReportsPaged(
-            @RequestParam Long userId,
+            @AuthenticationPrincipal JwtUserPrincipal principal,
+            @RequestParam(name = "userId", required = false) Long requestedUserId,
             @RequestParam String searchTerm,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "5") int size) {
+        Long userId = resolveUserId(principal, requestedUserId);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
         try {
-            System.out.println("Searching paged reports for userId: " + userId + 
-                    ", term: " + searchTerm +
-                    ", page: " + page + 
-                    ", size: " + size);
+            log.debug(LogMarkers.SAMPLED, "Searching paged reports for userId: {}, term: {}, page: {}, size: {}",
+                    userId, searchTerm, page, size);
             
             Pageable pageable = PageRequest.of(page, size);
             Page<Report> reportPage = reportService.searchReportsByKeywordPaged(userId, searchTerm, pageable);
@@ -141,58 +321,287 @@ public class ReportController {
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
-            System.out.println("Error searching paged reports: " + e.getMessage());
+            log.warn("Error searching paged reports: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Lọc kết hợp nhiều tag (match=all: có đủ các tag, match=any: có ít nhất một tag), khoảng ngày và từ khóa.
+    // Phục vụ từ chỉ mục bitmap trong bộ nhớ (ReportTagIndex), DB chỉ nạp các báo cáo của trang hiện tại
+    @GetMapping("/filter")
+    public ResponseEntity<Map<String, Object>> filterReports(
+            @AuthenticationPrincipal JwtUserPrincipal principal,
+            @RequestParam(name = "userId", required = false) Long requestedUserId,
+            @RequestParam(required = false) List<Long> tagIds,
+            @RequestParam(defaultValue = "any") String match,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String keyword,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "5") int size) {
+        Long userId = resolveUserId(principal, requestedUserId);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (!"all".equals(match) && !"any".equals(match)) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            log.debug(LogMarkers.SAMPLED, "Filtering reports for userId: {}, tagIds: {}, match: {}, from: {}, to: {}, keyword: {}",
+                    userId, tagIds, match, from, to, keyword);
+
+            Pageable pageable = PageRequest.of(page, size);
+            Page<ReportSummary> reportPage = reportService.filterReports(
+                    userId, tagIds, "all".equals(match), from, to, keyword, pageable);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("reports", reportPage.getContent());
+            response.put("currentPage", reportPage.getNumber());
+            response.put("totalItems", reportPage.getTotalElements());
+            response.put("totalPages", reportPage.getTotalPages());
+
+            return ResponseEntity.ok(response);
+        } catch (IllegalStateException e) {
+            // Chỉ mục đang được dựng lại sau khi khởi động
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .build();
+        } catch (Exception e) {
+            log.warn("Error filtering reports: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Report> getReportById(@PathVariable Long id) {
+    public ResponseEntity<Report> getReportById(
+            @AuthenticationPrincipal JwtUserPrincipal principal,
+            @PathVariable Long id) {
         try {
-            System.out.println("Getting report with id: " + id);
+            log.debug(LogMarkers.SAMPLED, "Getting report with id: {}", id);
             Report report = reportService.getReportById(id);
-            return ResponseEntity.ok(report);
+            if (!isOwner(principal, report)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            // ETag yếu (Tomcat không nén response có ETag mạnh); Spring tự trả 304 khi If-None-Match khớp
+            String etag = "W/\"report-" + id + "-" + reportVersionRegistry.version(report.getUserId()) + "\"";
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .eTag(etag)
+                    .body(report);
+        } catch (Exception e) {
+            log.warn("Error getting report: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Báo cáo trong khoảng ngày [from, to] cho màn hình lịch tuần/tháng, thay vì gọi GET /api/reports?date= cho từng ngày
+    @GetMapping("/range")
+    public ResponseEntity<List<ReportSummary>> getReportsInRange(
+            @AuthenticationPrincipal JwtUserPrincipal principal,
+            @RequestParam(name = "userId", required = false) Long requestedUserId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long tagId) {
+        Long userId = resolveUserId(principal, requestedUserId);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        try {
+            log.debug(LogMarkers.SAMPLED, "Getting reports for userId: {}, from: {}, to: {}, tagId: {}", userId, from, to, tagId);
+            return ResponseEntity.ok(reportService.getReportsByUserIdAndDateRange(userId, from, to, tagId));
         } catch (Exception e) {
-            System.out.println("Error getting report: " + e.getMessage());
+            log.warn("Error getting reports in range: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Thống kê đọc từ bảng tổng hợp theo ngày, mặc định 90 ngày gần nhất
+    @GetMapping("/stats")
+    public ResponseEntity<ReportStatsResponse> getReportStats(
+            @AuthenticationPrincipal JwtUserPrincipal principal,
+            @RequestParam(name = "userId", required = false) Long requestedUserId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        Long userId = resolveUserId(principal, requestedUserId);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        try {
+            log.debug(LogMarkers.SAMPLED, "Getting report stats for userId: {}, from: {}, to: {}", userId, from, to);
+            LocalDate end = to != null ? to : LocalDate.now();
+            LocalDate start = from != null ? from : end.minusDays(DEFAULT_STATS_DAYS - 1);
+            if (start.isAfter(end)) {
+                return ResponseEntity.badRequest().build();
+            }
+            return ResponseEntity.ok(reportStatsService.getStats(userId, start, end));
+        } catch (Exception e) {
+            log.warn("Error getting report stats: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
 
     @GetMapping("/count")
-    public ResponseEntity<Long> countReports(@RequestParam Long userId) {
+    public ResponseEntity<Long> countReports(
+            @AuthenticationPrincipal JwtUserPrincipal principal,
+            @RequestParam(name = "userId", required = false) Long requestedUserId) {
+        Long userId = resolveUserId(principal, requestedUserId);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
         try {
-            System.out.println("Counting reports for userId: " + userId);
+            log.debug(LogMarkers.SAMPLED, "Counting reports for userId: {}", userId);
             Long count = reportService.countReportsByUserId(userId);
             return ResponseEntity.ok(count);
         } catch (Exception e) {
-            System.out.println("Error counting reports: " + e.getMessage());
+            log.warn("Error counting reports: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
 
     @PostMapping
-    public ResponseEntity<Report> createReport(@RequestBody Report report) {
+    public ResponseEntity<Report> createReport(@AuthenticationPrincipal JwtUserPrincipal principal,
+                                               @RequestBody Report report) {
+        // Báo cáo luôn thuộc về user đăng nhập; userId trong body (nếu có) phải trùng
+        Long userId = resolveUserId(principal, report.getUserId());
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        report.setUserId(userId);
         try {
-            System.out.println("Creating report: " + report.getTitle() + 
-                    ", progress: " + report.getProgress() + 
-                    ", hours: " + report.getRemainingHours());
+            log.debug("Creating report: {}, progress: {}, hours: {}",
+                    report.getTitle(), report.getProgress(), report.getRemainingHours());
+            // Chế độ ghi trễ: trả 202 ngay sau khi ghi journal, ticket nằm trong Location để tra trạng thái
+            if (reportIngestionQueue.isEnabled()) {
+                ReportIngestionStatus status = reportIngestionQueue.enqueue(report);
+                return ResponseEntity.accepted()
+                        .location(URI.create("/api/reports/ingest/" + status.getTicket()))
+                        .header(INGESTION_TICKET_HEADER, status.getTicket())
+                        .body(report);
+            }
             Report savedReport = reportService.createReport(report);
             return ResponseEntity.status(201).body(savedReport);
+        } catch (TooManyRequestsException e) {
+            throw e;
         } catch (Exception e) {
-            System.out.println("Error creating report: " + e.getMessage());
+            log.warn("Error creating report: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Ticket của user khác trả 404 như ticket không tồn tại, không lộ trạng thái hay reportId của người khác
+    @GetMapping("/ingest/{ticket}")
+    public ResponseEntity<ReportIngestionStatus> getIngestionStatus(@AuthenticationPrincipal JwtUserPrincipal principal,
+                                                                    @PathVariable String ticket) {
+        if (principal == null || principal.getUserId() == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        ReportIngestionStatus status = reportIngestionQueue.getStatus(ticket, principal.getUserId());
+        if (status == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(status);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<ReportBatchResult>> createReports(@AuthenticationPrincipal JwtUserPrincipal principal,
+                                                                 @RequestBody List<Report> reports) {
+        try {
+            log.info("Creating batch of {} reports", reports.size());
+            if (reports.isEmpty() || reports.size() > batchMaxSize) {
+                return ResponseEntity.badRequest().build();
+            }
+            for (Report report : reports) {
+                if (report == null) {
+                    continue;
+                }
+                Long userId = resolveUserId(principal, report.getUserId());
+                if (userId == null) {
+                    return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+                }
+                report.setUserId(userId);
+            }
+            List<ReportBatchResult> results = reportService.createReports(reports);
+            return ResponseEntity.status(201).body(results);
+        } catch (Exception e) {
+            log.warn("Error creating report batch: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Xóa hàng loạt báo cáo của user đăng nhập: theo danh sách id (?ids=1,2,3) hoặc theo khoảng ngày (?from=&to=)
+    @DeleteMapping
+    public ResponseEntity<Map<String, Object>> deleteReports(
+            @AuthenticationPrincipal JwtUserPrincipal principal,
+            @RequestParam(name = "userId", required = false) Long requestedUserId,
+            @RequestParam(required = false) List<Long> ids,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        Long userId = resolveUserId(principal, requestedUserId);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        try {
+            int deleted;
+            if (ids != null && !ids.isEmpty() && from == null && to == null) {
+                if (ids.size() > batchMaxSize) {
+                    return ResponseEntity.badRequest().build();
+                }
+                log.info("Deleting {} reports for userId: {}", ids.size(), userId);
+                deleted = reportService.deleteReports(userId, ids);
+            } else if (ids == null && from != null && to != null) {
+                log.info("Deleting reports for userId: {}, from: {}, to: {}", userId, from, to);
+                deleted = reportService.deleteReportsInRange(userId, from, to);
+            } else {
+                return ResponseEntity.badRequest().build();
+            }
+            Map<String, Object> response = new HashMap<>();
+            response.put("deleted", deleted);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.warn("Error deleting reports: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteReport(@PathVariable Long id) {
+    public ResponseEntity<Void> deleteReport(
+            @AuthenticationPrincipal JwtUserPrincipal principal,
+            @PathVariable Long id) {
         try {
-            System.out.println("Deleting report with id: " + id);
+            log.debug("Deleting report with id: {}", id);
+            if (!isOwner(principal, reportService.getReportById(id))) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
             reportService.deleteReport(id);
             return ResponseEntity.ok().build();
         } catch (Exception e) {
-            System.out.println("Error deleting report: " + e.getMessage());
+            log.warn("Error deleting report: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
+
+    // userId lấy từ principal của token; tham số userId cũ vẫn được nhận để tương thích nhưng phải trùng user đăng nhập.
+    // Trả về null khi không xác định được user hoặc không khớp (controller trả 403)
+    private Long resolveUserId(JwtUserPrincipal principal, Long requestedUserId) {
+        if (principal == null || principal.getUserId() == null) {
+            return null;
+        }
+        if (requestedUserId != null && !requestedUserId.equals(principal.getUserId())) {
+            log.warn("User {} requested reports of user {}", principal.getUserId(), requestedUserId);
+            return null;
+        }
+        return principal.getUserId();
+    }
+
+    // Báo cáo theo id chỉ được đọc/xóa bởi chính chủ
+    private boolean isOwner(JwtUserPrincipal principal, Report report) {
+        if (principal == null || principal.getUserId() == null) {
+            return false;
+        }
+        if (!principal.getUserId().equals(report.getUserId())) {
+            log.warn("User {} requested report {} of user {}", principal.getUserId(), report.getId(), report.getUserId());
+            return false;
+        }
+        return true;
+    }
 } 
\ No newline at end of file
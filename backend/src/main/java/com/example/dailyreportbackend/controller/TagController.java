@@ -1,14 +1,19 @@
 package com.example.dailyreportbackend.controller;
 
+import com.example.dailyreportbackend.logging.LogMarkers;
 import com.example.dailyreportbackend.model.Tag;
+import com.example.dailyreportbackend.service.TagCatalog;
 import com.example.dailyreportbackend.service.TagService;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/tags")
 @CrossOrigin(origins = "${cors.allowed.origins}")
@@ -20,11 +25,16 @@ public class TagController {
     @GetMapping
     public ResponseEntity<List<Tag>> getAllTags() {
         try {
-            System.out.println("Getting all tags");
-            List<Tag> tags = tagService.getAllTags();
-            return ResponseEntity.ok(tags);
+            log.debug(LogMarkers.SAMPLED, "Getting all tags");
+            TagCatalog catalog = tagService.getTagCatalog();
+            // Có ETag/Last-Modified nên Spring tự trả 304 khi client gửi If-None-Match/If-Modified-Since khớp
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache())
+                    .eTag(catalog.getEtag())
+                    .lastModified(catalog.getLastModified())
+                    .body(catalog.getTags());
         } catch (Exception e) {
-            System.out.println("Error getting tags: " + e.getMessage());
+            log.warn("Error getting tags: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
@@ -32,11 +42,11 @@ public class TagController {
     @GetMapping("/{id}")
     public ResponseEntity<Tag> getTagById(@PathVariable Long id) {
         try {
-            System.out.println("Getting tag with id: " + id);
+            log.debug(LogMarkers.SAMPLED, "Getting tag with id: {}", id);
             Tag tag = tagService.getTagById(id);
             return ResponseEntity.ok(tag);
         } catch (Exception e) {
-            System.out.println("Error getting tag: " + e.getMessage());
+            log.warn("Error getting tag: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
@@ -44,11 +54,11 @@ public class TagController {
     @PostMapping
     public ResponseEntity<Tag> createTag(@RequestBody Tag tag) {
         try {
-            System.out.println("Creating tag: " + tag.getName());
+            log.info("Creating tag: {}", tag.getName());
             Tag savedTag = tagService.createTag(tag);
             return ResponseEntity.ok(savedTag);
         } catch (Exception e) {
-            System.out.println("Error creating tag: " + e.getMessage());
+            log.warn("Error creating tag: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
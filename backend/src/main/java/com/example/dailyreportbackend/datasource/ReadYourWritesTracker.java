@@ -0,0 +1,47 @@
+package com.example.dailyreportbackend.datasource;
+
+import com.example.dailyreportbackend.util.TransactionCallbacks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Ghi nhớ thời điểm ghi gần nhất của từng user: trong khoảng window sau đó, các truy vấn đọc của user này
+// vẫn đi vào primary để không đọc phải dữ liệu replica chưa kịp đồng bộ (read-your-writes)
+@Component
+public class ReadYourWritesTracker {
+
+    private final long windowNanos;
+    private final ConcurrentMap<Long, Long> primaryUntil = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(@Value("${datasource.routing.read-your-writes-window:PT5S}") Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    // Tính window từ lúc transaction commit; rollback thì không cần ghim user vào primary
+    public void recordWrite(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> pin(userId));
+    }
+
+    public boolean mustReadFromPrimary(Long userId) {
+        Long until = primaryUntil.get(userId);
+        if (until == null) {
+            return false;
+        }
+        if (System.nanoTime() - until < 0) {
+            return true;
+        }
+        // Hết window thì dọn entry để map không lớn dần
+        primaryUntil.remove(userId, until);
+        return false;
+    }
+
+    private void pin(Long userId) {
+        primaryUntil.put(userId, System.nanoTime() + windowNanos);
+    }
+}
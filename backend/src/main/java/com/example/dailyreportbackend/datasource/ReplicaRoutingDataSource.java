@@ -0,0 +1,67 @@
+package com.example.dailyreportbackend.datasource;
+
+import com.example.dailyreportbackend.security.JwtUserPrincipal;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Chọn primary hoặc một replica (xoay vòng) cho mỗi kết nối. Chỉ đi replica khi cả ba điều kiện đúng:
+// transaction đang readOnly, request có user đăng nhập, và user đó không vừa ghi dữ liệu (ReadYourWritesTracker).
+// Đọc không gắn với user (đăng nhập, JwtRequestFilter tải user...) luôn vào primary để tránh đọc dữ liệu trễ.
+// Cần bọc trong LazyConnectionDataSourceProxy: cờ readOnly chỉ được đặt sau khi transaction manager đã xin kết nối.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    private final List<String> replicaKeys = new ArrayList<>();
+    private final List<DataSource> replicas;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<? extends DataSource> replicas,
+                                    ReadYourWritesTracker readYourWritesTracker) {
+        this.replicas = List.copyOf(replicas);
+        this.readYourWritesTracker = readYourWritesTracker;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            String key = "replica-" + (i + 1);
+            targets.put(key, replicas.get(i));
+            replicaKeys.add(key);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicaKeys.isEmpty() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        Long userId = JwtUserPrincipal.currentUserId();
+        if (userId == null || readYourWritesTracker.mustReadFromPrimary(userId)) {
+            return PRIMARY;
+        }
+        return replicaKeys.get(Math.floorMod(nextReplica.getAndIncrement(), replicaKeys.size()));
+    }
+
+    // Pool replica do lớp này tạo ra nên cũng đóng ở đây; pool primary là bean riêng, Spring tự đóng
+    @Override
+    public void close() {
+        for (DataSource replica : replicas) {
+            if (replica instanceof HikariDataSource hikari) {
+                hikari.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.dailyreportbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Kết quả cho từng phần tử của POST /api/reports/batch, theo đúng thứ tự gửi lên
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReportBatchResult {
+    public static final String CREATED = "CREATED";
+    public static final String REJECTED = "REJECTED";
+
+    private int index;
+    private Long id;
+    private String status;
+    private String message;
+}
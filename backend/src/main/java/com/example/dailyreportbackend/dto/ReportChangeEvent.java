@@ -0,0 +1,29 @@
+package com.example.dailyreportbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+// Thay đổi báo cáo của một user, phát sau khi transaction commit tới các kết nối /api/reports/stream.
+// type = created: reports chứa bản rút gọn các báo cáo mới; type = deleted: reportIds là các báo cáo đã rời
+// danh sách (xóa hoặc chuyển sang lưu trữ)
+@Data
+@AllArgsConstructor
+public class ReportChangeEvent {
+    public static final String CREATED = "created";
+    public static final String DELETED = "deleted";
+
+    private String type;
+    private Long userId;
+    private List<ReportSummary> reports;
+    private List<Long> reportIds;
+
+    public static ReportChangeEvent created(Long userId, List<ReportSummary> reports) {
+        return new ReportChangeEvent(CREATED, userId, reports, reports.stream().map(ReportSummary::getId).toList());
+    }
+
+    public static ReportChangeEvent deleted(Long userId, List<Long> reportIds) {
+        return new ReportChangeEvent(DELETED, userId, null, reportIds);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.dailyreportbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Cursor mờ cho phân trang keyset: mã hóa (date, id) của báo cáo cuối cùng trong trang, date rỗng khi báo cáo không có ngày
+@Data
+@AllArgsConstructor
+public class ReportCursor {
+    private static final String SEPARATOR = "|";
+
+    private LocalDate date;
+    private Long id;
+
+    public static ReportCursor of(ReportSummary report) {
+        return new ReportCursor(report.getDate(), report.getId());
+    }
+
+    public String encode() {
+        String raw = (date != null ? date.toString() : "") + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ReportCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = raw.lastIndexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                throw new IllegalArgumentException("Cursor không hợp lệ");
+            }
+            LocalDate date = separatorIndex > 0 ? LocalDate.parse(raw.substring(0, separatorIndex)) : null;
+            return new ReportCursor(date, Long.valueOf(raw.substring(separatorIndex + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor không hợp lệ", e);
+        }
+    }
+}
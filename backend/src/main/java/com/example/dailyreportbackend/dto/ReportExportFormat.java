@@ -0,0 +1,25 @@
+package com.example.dailyreportbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Locale;
+
+// Định dạng export báo cáo
+@Getter
+@AllArgsConstructor
+public enum ReportExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    public static ReportExportFormat from(String format) {
+        try {
+            return valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Định dạng export không hợp lệ: " + format, e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.dailyreportbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Trạng thái của một báo cáo gửi qua hàng đợi ghi (GET /api/reports/ingest/{ticket})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReportIngestionStatus {
+    public static final String QUEUED = "QUEUED";
+    public static final String CREATED = ReportBatchResult.CREATED;
+    public static final String REJECTED = ReportBatchResult.REJECTED;
+
+    private String ticket;
+    private String status;
+    private Long reportId;
+    private String message;
+}
@@ -0,0 +1,47 @@
+package com.example.dailyreportbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Thống kê báo cáo của một user trong khoảng [from, to], dựng từ bảng report_daily_stat
+@Data
+@AllArgsConstructor
+public class ReportStatsResponse {
+    private Long userId;
+    private LocalDate from;
+    private LocalDate to;
+    private long totalReports;
+    private List<DailyStat> daily;
+    private List<TagStat> byTag;
+    private List<WeeklyStat> weekly;
+
+    @Data
+    @AllArgsConstructor
+    public static class DailyStat {
+        private LocalDate date;
+        private long reportCount;
+        private double remainingHours;
+    }
+
+    // tagId = null là nhóm báo cáo không có tag
+    @Data
+    @AllArgsConstructor
+    public static class TagStat {
+        private Long tagId;
+        private long reportCount;
+        private double remainingHours;
+        private Double averageProgress;
+    }
+
+    // weekStart là thứ Hai đầu tuần
+    @Data
+    @AllArgsConstructor
+    public static class WeeklyStat {
+        private LocalDate weekStart;
+        private long reportCount;
+        private Double averageProgress;
+    }
+}
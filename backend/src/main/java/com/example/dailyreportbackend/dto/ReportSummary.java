@@ -0,0 +1,21 @@
+package com.example.dailyreportbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Dữ liệu rút gọn cho màn hình danh sách, không chứa content/issue/solution
+@Data
+@AllArgsConstructor
+public class ReportSummary {
+    private Long id;
+    private String title;
+    private LocalDate date;
+    private Long tagId;
+    private List<Long> tagIds;
+    private Long userId;
+    private Integer progress;
+    private Double remainingHours;
+}
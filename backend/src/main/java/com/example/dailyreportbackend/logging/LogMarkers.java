@@ -0,0 +1,12 @@
+package com.example.dailyreportbackend.logging;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+public final class LogMarkers {
+    // Dòng log tần suất cao, bị lấy mẫu bởi SamplingTurboFilter
+    public static final Marker SAMPLED = MarkerFactory.getMarker("SAMPLED");
+
+    private LogMarkers() {
+    }
+}
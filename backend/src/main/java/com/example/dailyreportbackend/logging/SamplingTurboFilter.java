@@ -0,0 +1,37 @@
+package com.example.dailyreportbackend.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Chỉ cho qua 1 trên mỗi `rate` dòng log gắn marker đã cấu hình; WARN/ERROR luôn được ghi
+public class SamplingTurboFilter extends TurboFilter {
+
+    private final AtomicLong counter = new AtomicLong();
+    private String marker = LogMarkers.SAMPLED.getName();
+    private int rate = 100;
+
+    @Override
+    public FilterReply decide(Marker eventMarker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (eventMarker == null || rate <= 1 || level.isGreaterOrEqual(Level.WARN) || !eventMarker.contains(marker)) {
+            return FilterReply.NEUTRAL;
+        }
+        // Không đếm các dòng đằng nào cũng bị tắt theo level của logger
+        if (!level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        return counter.getAndIncrement() % rate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    public void setMarker(String marker) {
+        this.marker = marker;
+    }
+
+    public void setRate(int rate) {
+        this.rate = rate;
+    }
+}
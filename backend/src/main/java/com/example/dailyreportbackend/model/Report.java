@@ -1,25 +1,63 @@
 package com.example.dailyreportbackend.model;
 
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+// Các index khớp với migration V2__report_date_column.sql
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_report_user_date", columnList = "userId, date"),
+        @Index(name = "idx_report_user_tag_date", columnList = "userId, tagId, date")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 public class Report {
+    // Id cấp theo khối (pooled) thay cho IDENTITY để Hibernate có thể gom INSERT thành JDBC batch.
+    // Trên MySQL, "sequence" được mô phỏng bằng bảng report_seq (xem V3__report_id_sequence.sql)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "report_seq")
+    @SequenceGenerator(name = "report_seq", sequenceName = "report_seq", allocationSize = 50)
     private Long id;
     
     private String title;
     private String content;
-    private String date;
+    private LocalDate date;
     private Long tagId;
+    // Tất cả tag của báo cáo; tagId luôn là tag đầu tiên để các truy vấn và thống kê theo một tag vẫn đúng
+    @Convert(converter = TagIdsConverter.class)
+    private List<Long> tagIds;
     private Long userId;
     private Integer progress;
     private Double remainingHours;
     private String issue;
     private String solution;
-} 
\ No newline at end of file
+
+    // Client cũ chỉ gửi tagId, client mới gửi tagIds: đồng bộ hai trường trước khi ghi
+    @PrePersist
+    @PreUpdate
+    public void syncTagIds() {
+        List<Long> distinctTagIds = tagIds == null ? List.of()
+                : tagIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinctTagIds.isEmpty()) {
+            tagIds = tagId != null ? List.of(tagId) : null;
+        } else {
+            tagIds = distinctTagIds;
+            tagId = distinctTagIds.get(0);
+        }
+    }
+} 
@@ -0,0 +1,34 @@
+package com.example.dailyreportbackend.model;
+
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Báo cáo quá hạn lưu giữ được chuyển khỏi bảng report (xem ReportRetentionJob), giữ nguyên id.
+// Bảng dùng ROW_FORMAT=COMPRESSED (V7__report_archive.sql) vì chỉ được đọc lại khi cần tra cứu
+@Entity
+@Table(name = "report_archive")
+@Data
+public class ReportArchive {
+    @Id
+    private Long id;
+
+    private String title;
+    private String content;
+    private LocalDate date;
+    private Long tagId;
+    @Convert(converter = TagIdsConverter.class)
+    private List<Long> tagIds;
+    private Long userId;
+    private Integer progress;
+    private Double remainingHours;
+    private String issue;
+    private String solution;
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,34 @@
+package com.example.dailyreportbackend.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+// Dòng tổng hợp theo (user, ngày, tag), được cộng/trừ dần khi tạo/xóa báo cáo thay vì tính lại từ bảng report
+@Entity
+@Data
+@Table(name = "report_daily_stat", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_report_daily_stat", columnNames = {"userId", "date", "tagId"})
+})
+public class ReportDailyStat {
+    // Báo cáo không có tag được gom vào tagId = 0
+    public static final long NO_TAG = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long userId;
+    private LocalDate date;
+    private Long tagId;
+    private long reportCount;
+    private long progressSum;
+    private long progressCount;
+    private double remainingHoursSum;
+}
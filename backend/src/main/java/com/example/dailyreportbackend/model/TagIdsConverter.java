@@ -0,0 +1,37 @@
+package com.example.dailyreportbackend.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Danh sách tag của báo cáo được lưu thành chuỗi "1,5,7" trong cột report.tag_ids (xem V6__report_tag_ids.sql)
+@Converter
+public class TagIdsConverter implements AttributeConverter<List<Long>, String> {
+
+    private static final String SEPARATOR = ",";
+
+    @Override
+    public String convertToDatabaseColumn(List<Long> tagIds) {
+        if (tagIds == null || tagIds.isEmpty()) {
+            return null;
+        }
+        return tagIds.stream().map(String::valueOf).collect(Collectors.joining(SEPARATOR));
+    }
+
+    @Override
+    public List<Long> convertToEntityAttribute(String column) {
+        List<Long> tagIds = new ArrayList<>();
+        if (column == null || column.isBlank()) {
+            return tagIds;
+        }
+        for (String tagId : column.split(SEPARATOR)) {
+            if (!tagId.isBlank()) {
+                tagIds.add(Long.valueOf(tagId.trim()));
+            }
+        }
+        return tagIds;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.dailyreportbackend.reactive;
+
+import com.example.dailyreportbackend.logging.LogMarkers;
+import com.example.dailyreportbackend.security.JwtAuthenticationCache;
+import com.example.dailyreportbackend.security.JwtUserPrincipal;
+import com.example.dailyreportbackend.security.JwtUtil;
+import com.example.dailyreportbackend.security.TokenRevocationRegistry;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+// Bản WebFlux của JwtRequestFilter, chạy ở vị trí AUTHENTICATION trong SecurityWebFilterChain.
+// Luôn stateless: principal dựng từ claims vì tra bảng user qua JPA sẽ chặn luồng event loop.
+// Không khai báo là bean, nếu không WebFlux sẽ tự thêm nó vào chuỗi filter chung và chạy hai lần
+@Slf4j
+public class JwtWebFilter implements WebFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtUtil jwtUtil;
+    private final JwtAuthenticationCache jwtAuthenticationCache;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final boolean revocationCheckEnabled;
+
+    public JwtWebFilter(JwtUtil jwtUtil, JwtAuthenticationCache jwtAuthenticationCache,
+                        TokenRevocationRegistry tokenRevocationRegistry, boolean revocationCheckEnabled) {
+        this.jwtUtil = jwtUtil;
+        this.jwtAuthenticationCache = jwtAuthenticationCache;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
+        this.revocationCheckEnabled = revocationCheckEnabled;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String authorizationHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorizationHeader == null || !authorizationHeader.startsWith(BEARER_PREFIX)) {
+            return chain.filter(exchange);
+        }
+
+        // Parse token là việc thuần CPU (HMAC), làm ngay trên event loop; token đã verify thì lấy từ cache
+        JwtAuthenticationCache.CachedAuthentication cached = jwtAuthenticationCache.get(authorizationHeader);
+        if (cached == null) {
+            cached = authenticate(authorizationHeader);
+        }
+        if (cached != null && revocationCheckEnabled && tokenRevocationRegistry.isRevoked(cached.getClaims())) {
+            log.info("Token has been revoked for user: {}", cached.getClaims().getSubject());
+            cached = null;
+        }
+        if (cached == null) {
+            return chain.filter(exchange);
+        }
+
+        UserDetails userDetails = cached.getUserDetails();
+        UsernamePasswordAuthenticationToken authentication =
+                UsernamePasswordAuthenticationToken.authenticated(userDetails, null, userDetails.getAuthorities());
+        // SecurityContext đi theo Reactor Context của request, không dùng ThreadLocal
+        return chain.filter(exchange)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+    }
+
+    private JwtAuthenticationCache.CachedAuthentication authenticate(String authorizationHeader) {
+        Claims claims;
+        try {
+            claims = jwtUtil.parseToken(authorizationHeader.substring(BEARER_PREFIX.length()));
+        } catch (Exception e) {
+            log.warn("Error extracting username from token: {}", e.getMessage());
+            return null;
+        }
+
+        String email = claims.getSubject();
+        if (email == null) {
+            return null;
+        }
+        UserDetails userDetails = new JwtUserPrincipal(jwtUtil.extractUserId(claims), email);
+        if (!jwtUtil.validateToken(claims, userDetails.getUsername())) {
+            return null;
+        }
+        log.debug(LogMarkers.SAMPLED, "Authentication successful for user: {}", email);
+        return jwtAuthenticationCache.put(authorizationHeader, claims, userDetails);
+    }
+}
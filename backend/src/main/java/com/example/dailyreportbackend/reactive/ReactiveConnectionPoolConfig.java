@@ -0,0 +1,41 @@
+package com.example.dailyreportbackend.reactive;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.PropertyMapper;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import reactor.core.scheduler.Schedulers;
+
+// Pool R2DBC dựng từ spring.r2dbc.* và spring.r2dbc.pool.* như cấu hình mặc định, thêm acquisitionScheduler:
+// mặc định request đang chờ kết nối được chạy tiếp ngay trên luồng vừa trả kết nối, tức event loop đang xử lý một
+// request khác. Khi hết pool, một event loop ôm hết các request đang chờ (và ghi response hộ các kết nối HTTP khác);
+// với driver đồng bộ như r2dbc-h2, request POST có thể kẹt hẳn khi body của nó đang được đọc lồng bên trong
+@Configuration
+@Profile(ReactiveReportApplication.PROFILE)
+public class ReactiveConnectionPoolConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool connectionFactory(R2dbcProperties properties) {
+        ConnectionFactory connectionFactory = ConnectionFactoryBuilder.withUrl(properties.getUrl())
+                .username(properties.getUsername())
+                .password(properties.getPassword())
+                .build();
+        R2dbcProperties.Pool pool = properties.getPool();
+        ConnectionPoolConfiguration.Builder builder = ConnectionPoolConfiguration.builder(connectionFactory)
+                .initialSize(pool.getInitialSize())
+                .maxSize(pool.getMaxSize())
+                .customizer(poolBuilder -> poolBuilder.acquisitionScheduler(Schedulers.boundedElastic()));
+        PropertyMapper map = PropertyMapper.get().alwaysApplyingWhenNonNull();
+        map.from(pool.getMaxIdleTime()).to(builder::maxIdleTime);
+        map.from(pool.getMaxLifeTime()).to(builder::maxLifeTime);
+        map.from(pool.getMaxAcquireTime()).to(builder::maxAcquireTime);
+        map.from(pool.getMaxCreateConnectionTime()).to(builder::maxCreateConnectionTime);
+        map.from(pool.getValidationQuery()).to(builder::validationQuery);
+        return new ConnectionPool(builder.build());
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.dailyreportbackend.reactive;
+
+import com.example.dailyreportbackend.security.JwtAuthenticationCache;
+import com.example.dailyreportbackend.security.JwtUtil;
+import com.example.dailyreportbackend.security.TokenRevocationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveUserDetailsServiceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Profile;
+
+// Biến thể non-blocking của API báo cáo: WebFlux (Netty) + R2DBC, bật bằng profile "reactive".
+// Chỉ quét package này (danh sách, xem, tạo, xóa, tìm kiếm báo cáo); đăng nhập/đăng ký vẫn do bản MVC phát token,
+// hai bản dùng chung jwt.secret. Các chỉ mục trong bộ nhớ của bản MVC (tìm kiếm, tag, ETag) không thấy thay đổi
+// do bản này ghi, nên không chạy hai bản cùng lúc trên một database
+@Profile(ReactiveReportApplication.PROFILE)
+@SpringBootApplication(exclude = {
+        DataSourceAutoConfiguration.class,
+        HibernateJpaAutoConfiguration.class,
+        ReactiveUserDetailsServiceAutoConfiguration.class
+})
+@Import({JwtUtil.class, JwtAuthenticationCache.class, TokenRevocationRegistry.class})
+public class ReactiveReportApplication {
+
+    public static final String PROFILE = "reactive";
+
+    // Tomcat của bản MVC cũng có trên classpath và được Spring Boot ưu tiên; bản reactive chạy trên Netty (event loop)
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(ObjectProvider<NettyServerCustomizer> serverCustomizers) {
+        NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+        serverCustomizers.orderedStream().forEach(factory::addServerCustomizers);
+        return factory;
+    }
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveReportApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles(PROFILE)
+                .run(args);
+    }
+}
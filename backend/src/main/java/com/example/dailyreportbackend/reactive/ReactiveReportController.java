@@ -0,0 +1,155 @@
+package com.example.dailyreportbackend.reactive;
+
+import com.example.dailyreportbackend.dto.ReportSummary;
+import com.example.dailyreportbackend.logging.LogMarkers;
+import com.example.dailyreportbackend.model.Report;
+import com.example.dailyreportbackend.security.JwtUserPrincipal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+// Các API đọc/ghi/tìm kiếm báo cáo của ReportController trên WebFlux, cùng đường dẫn, tham số và mã lỗi.
+// Danh sách trả về dạng Flux: các dòng đi thẳng từ R2DBC ra socket, nhu cầu (demand) của client đọc chậm
+// lan ngược về truy vấn nên không dựng cả danh sách trong heap
+@Slf4j
+@RestController
+@RequestMapping("/api/reports")
+@Profile(ReactiveReportApplication.PROFILE)
+public class ReactiveReportController {
+
+    @Autowired
+    private ReactiveReportService reportService;
+
+    // Số dòng tối đa yêu cầu từ database mỗi lần, bổ sung dần khi đã ghi ra được 75%
+    @Value("${report.reactive.fetch-size:256}")
+    private int fetchSize;
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Flux<ReportSummary>>> getReports(
+            @AuthenticationPrincipal JwtUserPrincipal principal,
+            @RequestParam(name = "userId", required = false) Long requestedUserId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) Long tagId) {
+        Long userId = resolveUserId(principal, requestedUserId);
+        if (userId == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+        }
+        log.debug(LogMarkers.SAMPLED, "Getting reports for userId: {}, date: {}, tagId: {}", userId, date, tagId);
+        return Mono.just(ResponseEntity.ok(listReports(userId, date, tagId)));
+    }
+
+    // Cùng dữ liệu với GET /api/reports khi client gửi Accept: application/x-ndjson, mỗi báo cáo một dòng được flush ngay
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Flux<ReportSummary>>> streamReports(
+            @AuthenticationPrincipal JwtUserPrincipal principal,
+            @RequestParam(name = "userId", required = false) Long requestedUserId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) Long tagId) {
+        Long userId = resolveUserId(principal, requestedUserId);
+        if (userId == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+        }
+        log.debug(LogMarkers.SAMPLED, "Streaming reports for userId: {}, date: {}, tagId: {}", userId, date, tagId);
+        return Mono.just(ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(listReports(userId, date, tagId)));
+    }
+
+    // Mỗi từ trong searchTerm khớp như chuỗi con ("log" khớp "catalog"), báo cáo phải chứa đủ các từ
+    @GetMapping("/search")
+    public Mono<ResponseEntity<Flux<Report>>> searchReports(
+            @AuthenticationPrincipal JwtUserPrincipal principal,
+            @RequestParam(name = "userId", required = false) Long requestedUserId,
+            @RequestParam String searchTerm) {
+        Long userId = resolveUserId(principal, requestedUserId);
+        if (userId == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+        }
+        log.debug(LogMarkers.SAMPLED, "Searching reports for userId: {}, term: {}", userId, searchTerm);
+        return Mono.just(ResponseEntity.ok(reportService.searchReportsByKeyword(userId, searchTerm).limitRate(fetchSize)));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Report>> getReportById(@AuthenticationPrincipal JwtUserPrincipal principal,
+                                                      @PathVariable Long id) {
+        return reportService.getReportById(id)
+                .map(report -> isOwner(principal, report)
+                        ? ResponseEntity.ok(report)
+                        : ResponseEntity.status(HttpStatus.FORBIDDEN).<Report>build())
+                .onErrorResume(e -> {
+                    log.warn("Error getting report by id: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.badRequest().build());
+                });
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Report>> createReport(@AuthenticationPrincipal JwtUserPrincipal principal,
+                                                     @RequestBody Report report) {
+        // Báo cáo luôn thuộc về user đăng nhập; userId trong body (nếu có) phải trùng
+        Long userId = resolveUserId(principal, report.getUserId());
+        if (userId == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+        }
+        report.setUserId(userId);
+        log.debug("Creating report: {}, progress: {}, hours: {}",
+                report.getTitle(), report.getProgress(), report.getRemainingHours());
+        return reportService.createReport(report)
+                .map(savedReport -> ResponseEntity.status(HttpStatus.CREATED).body(savedReport))
+                .onErrorResume(e -> {
+                    log.warn("Error creating report: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.badRequest().build());
+                });
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteReport(@AuthenticationPrincipal JwtUserPrincipal principal,
+                                                   @PathVariable Long id) {
+        log.debug("Deleting report with id: {}", id);
+        return reportService.getReportById(id)
+                .flatMap(report -> isOwner(principal, report)
+                        ? reportService.deleteReport(report).thenReturn(ResponseEntity.ok().<Void>build())
+                        : Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).<Void>build()))
+                .onErrorResume(e -> {
+                    log.warn("Error deleting report: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.badRequest().build());
+                });
+    }
+
+    private Flux<ReportSummary> listReports(Long userId, LocalDate date, Long tagId) {
+        return reportService.getReportSummaries(userId, date, tagId).limitRate(fetchSize);
+    }
+
+    // Giống ReportController.resolveUserId: chỉ được xem báo cáo của chính mình
+    private Long resolveUserId(JwtUserPrincipal principal, Long requestedUserId) {
+        if (principal == null || principal.getUserId() == null) {
+            return null;
+        }
+        if (requestedUserId != null && !requestedUserId.equals(principal.getUserId())) {
+            log.warn("User {} requested reports of user {}", principal.getUserId(), requestedUserId);
+            return null;
+        }
+        return principal.getUserId();
+    }
+
+    private boolean isOwner(JwtUserPrincipal principal, Report report) {
+        if (principal == null || principal.getUserId() == null) {
+            return false;
+        }
+        if (!principal.getUserId().equals(report.getUserId())) {
+            log.warn("User {} requested report {} of user {}", principal.getUserId(), report.getId(), report.getUserId());
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.dailyreportbackend.reactive;
+
+import com.example.dailyreportbackend.dto.ReportSummary;
+import com.example.dailyreportbackend.model.Report;
+import com.example.dailyreportbackend.model.TagIdsConverter;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Truy vấn bảng report và report_daily_stat qua R2DBC (DatabaseClient), cùng lược đồ Flyway với bản JPA.
+// SQL viết tay vì Spring Data R2DBC không có converter cho tag_ids và không hỗ trợ upsert
+@Repository
+@Profile(ReactiveReportApplication.PROFILE)
+public class ReactiveReportRepository {
+
+    private static final String SUMMARY_COLUMNS = "id, title, `date`, tag_id, tag_ids, user_id, progress, remaining_hours";
+    private static final String REPORT_COLUMNS = SUMMARY_COLUMNS + ", content, issue, solution";
+    private static final String[] SEARCH_COLUMNS = {"title", "content", "issue", "solution"};
+
+    private final TagIdsConverter tagIdsConverter = new TagIdsConverter();
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    // Mới nhất trước như ReportRepository.findSummariesByUserId...; các dòng được đọc dần theo nhu cầu của subscriber
+    public Flux<ReportSummary> findSummaries(Long userId, LocalDate date, Long tagId) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(SUMMARY_COLUMNS)
+                .append(" FROM report WHERE user_id = :userId");
+        if (date != null) {
+            sql.append(" AND `date` = :date");
+        }
+        if (tagId != null) {
+            sql.append(" AND tag_id = :tagId");
+        }
+        sql.append(" ORDER BY `date` DESC, id DESC");
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString()).bind("userId", userId);
+        if (date != null) {
+            spec = spec.bind("date", date);
+        }
+        if (tagId != null) {
+            spec = spec.bind("tagId", tagId);
+        }
+        return spec.map(this::toSummary).all();
+    }
+
+    public Mono<Report> findById(Long id) {
+        return databaseClient.sql("SELECT " + REPORT_COLUMNS + " FROM report WHERE id = :id")
+                .bind("id", id)
+                .map(this::toReport)
+                .one();
+    }
+
+    // Mỗi từ khớp như chuỗi con trong title/content/issue/solution, báo cáo phải chứa đủ các từ (giống ReportSearchIndex).
+    // Các từ đã được tách bằng ReportSearchIndex.tokenize nên chỉ gồm chữ và số, không chứa ký tự đặc biệt của LIKE
+    public Flux<Report> search(Long userId, List<String> terms) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(REPORT_COLUMNS)
+                .append(" FROM report WHERE user_id = :userId");
+        for (int i = 0; i < terms.size(); i++) {
+            sql.append(" AND (");
+            for (int c = 0; c < SEARCH_COLUMNS.length; c++) {
+                if (c > 0) {
+                    sql.append(" OR ");
+                }
+                sql.append("LOWER(").append(SEARCH_COLUMNS[c]).append(") LIKE :term").append(i);
+            }
+            sql.append(')');
+        }
+        sql.append(" ORDER BY `date` DESC, id DESC");
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString()).bind("userId", userId);
+        for (int i = 0; i < terms.size(); i++) {
+            spec = spec.bind("term" + i, "%" + terms.get(i) + "%");
+        }
+        return spec.map(this::toReport).all();
+    }
+
+    public Mono<Void> insert(Report report) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("INSERT INTO report " +
+                        "(id, title, content, `date`, tag_id, tag_ids, user_id, progress, remaining_hours, issue, solution) " +
+                        "VALUES (:id, :title, :content, :date, :tagId, :tagIds, :userId, :progress, :remainingHours, :issue, :solution)")
+                .bind("id", report.getId());
+        spec = bindNullable(spec, "title", report.getTitle(), String.class);
+        spec = bindNullable(spec, "content", report.getContent(), String.class);
+        spec = bindNullable(spec, "date", report.getDate(), LocalDate.class);
+        spec = bindNullable(spec, "tagId", report.getTagId(), Long.class);
+        spec = bindNullable(spec, "tagIds", tagIdsConverter.convertToDatabaseColumn(report.getTagIds()), String.class);
+        spec = bindNullable(spec, "userId", report.getUserId(), Long.class);
+        spec = bindNullable(spec, "progress", report.getProgress(), Integer.class);
+        spec = bindNullable(spec, "remainingHours", report.getRemainingHours(), Double.class);
+        spec = bindNullable(spec, "issue", report.getIssue(), String.class);
+        spec = bindNullable(spec, "solution", report.getSolution(), String.class);
+        return spec.then();
+    }
+
+    public Mono<Long> deleteById(Long id) {
+        return databaseClient.sql("DELETE FROM report WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    // Cùng câu upsert với ReportDailyStatRepository.upsertDelta
+    public Mono<Void> upsertStatDelta(Long userId, LocalDate date, Long tagId, long reportCount,
+                                      long progressSum, long progressCount, double remainingHoursSum) {
+        return databaseClient.sql("INSERT INTO report_daily_stat " +
+                        "(user_id, `date`, tag_id, report_count, progress_sum, progress_count, remaining_hours_sum) " +
+                        "VALUES (:userId, :date, :tagId, :reportCount, :progressSum, :progressCount, :remainingHoursSum) " +
+                        "ON DUPLICATE KEY UPDATE " +
+                        "report_count = report_count + VALUES(report_count), " +
+                        "progress_sum = progress_sum + VALUES(progress_sum), " +
+                        "progress_count = progress_count + VALUES(progress_count), " +
+                        "remaining_hours_sum = remaining_hours_sum + VALUES(remaining_hours_sum)")
+                .bind("userId", userId)
+                .bind("date", date)
+                .bind("tagId", tagId)
+                .bind("reportCount", reportCount)
+                .bind("progressSum", progressSum)
+                .bind("progressCount", progressCount)
+                .bind("remainingHoursSum", remainingHoursSum)
+                .then();
+    }
+
+    public Mono<Void> deleteStatIfEmpty(Long userId, LocalDate date, Long tagId) {
+        return databaseClient.sql("DELETE FROM report_daily_stat " +
+                        "WHERE user_id = :userId AND `date` = :date AND tag_id = :tagId AND report_count <= 0")
+                .bind("userId", userId)
+                .bind("date", date)
+                .bind("tagId", tagId)
+                .then();
+    }
+
+    private ReportSummary toSummary(Readable row) {
+        return new ReportSummary(
+                row.get("id", Long.class),
+                row.get("title", String.class),
+                row.get("date", LocalDate.class),
+                row.get("tag_id", Long.class),
+                tagIdsConverter.convertToEntityAttribute(row.get("tag_ids", String.class)),
+                row.get("user_id", Long.class),
+                row.get("progress", Integer.class),
+                row.get("remaining_hours", Double.class));
+    }
+
+    private Report toReport(Readable row) {
+        Report report = new Report();
+        report.setId(row.get("id", Long.class));
+        report.setTitle(row.get("title", String.class));
+        report.setContent(row.get("content", String.class));
+        report.setDate(row.get("date", LocalDate.class));
+        report.setTagId(row.get("tag_id", Long.class));
+        report.setTagIds(tagIdsConverter.convertToEntityAttribute(row.get("tag_ids", String.class)));
+        report.setUserId(row.get("user_id", Long.class));
+        report.setProgress(row.get("progress", Integer.class));
+        report.setRemainingHours(row.get("remaining_hours", Double.class));
+        report.setIssue(row.get("issue", String.class));
+        report.setSolution(row.get("solution", String.class));
+        return report;
+    }
+
+    private static <T> DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec,
+                                                                       String name, T value, Class<T> type) {
+        return value != null ? spec.bind(name, value) : spec.bindNull(name, type);
+    }
+}
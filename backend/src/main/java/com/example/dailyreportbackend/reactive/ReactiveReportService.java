@@ -0,0 +1,95 @@
+package com.example.dailyreportbackend.reactive;
+
+import com.example.dailyreportbackend.dto.ReportSummary;
+import com.example.dailyreportbackend.exception.ResourceNotFoundException;
+import com.example.dailyreportbackend.model.Report;
+import com.example.dailyreportbackend.model.ReportDailyStat;
+import com.example.dailyreportbackend.search.ReportSearchIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Nghiệp vụ báo cáo của bản reactive: cùng quy tắc với ReportServiceImpl cho danh sách, tạo, xóa, tìm kiếm,
+// bảng report_daily_stat được cập nhật trong cùng transaction (TransactionalOperator thay cho @Transactional)
+@Service
+@Profile(ReactiveReportApplication.PROFILE)
+public class ReactiveReportService {
+
+    @Autowired
+    private ReactiveReportRepository reportRepository;
+
+    @Autowired
+    private ReportIdAllocator reportIdAllocator;
+
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
+    // Bảng partition theo `date` (NOT NULL) thì báo cáo không có ngày không ghi được
+    @Value("${report.partitioning.enabled:false}")
+    private boolean dateRequired;
+
+    // Có date thì bỏ qua tagId, giống GET /api/reports của bản MVC
+    public Flux<ReportSummary> getReportSummaries(Long userId, LocalDate date, Long tagId) {
+        return reportRepository.findSummaries(userId, date, date != null ? null : tagId);
+    }
+
+    public Mono<Report> getReportById(Long id) {
+        return reportRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Report", "id", id)));
+    }
+
+    public Flux<Report> searchReportsByKeyword(Long userId, String keyword) {
+        List<String> terms = ReportSearchIndex.tokenize(keyword);
+        if (terms.isEmpty()) {
+            return Flux.empty();
+        }
+        return reportRepository.search(userId, terms);
+    }
+
+    public Mono<Report> createReport(Report report) {
+        if (dateRequired && report.getDate() == null) {
+            return Mono.error(new IllegalArgumentException("Thiếu ngày báo cáo"));
+        }
+        report.syncTagIds();
+        // Lấy id trước khi mở transaction, xem ReportIdAllocator.nextId
+        return reportIdAllocator.nextId()
+                .flatMap(id -> {
+                    report.setId(id);
+                    return reportRepository.insert(report)
+                            .then(recordStats(report, 1))
+                            .as(transactionalOperator::transactional);
+                })
+                .thenReturn(report);
+    }
+
+    public Mono<Void> deleteReport(Report report) {
+        return reportRepository.deleteById(report.getId())
+                .flatMap(deleted -> deleted > 0 ? recordStats(report, -1) : Mono.empty())
+                .as(transactionalOperator::transactional);
+    }
+
+    // Như ReportStatsServiceImpl: báo cáo không có ngày không được tổng hợp, không có tag thì gom vào NO_TAG
+    private Mono<Void> recordStats(Report report, int sign) {
+        if (report.getUserId() == null || report.getDate() == null) {
+            return Mono.empty();
+        }
+        Long tagId = report.getTagId() != null ? report.getTagId() : ReportDailyStat.NO_TAG;
+        Integer progress = report.getProgress();
+        Double remainingHours = report.getRemainingHours();
+        Mono<Void> upsert = reportRepository.upsertStatDelta(report.getUserId(), report.getDate(), tagId, sign,
+                progress != null ? (long) sign * progress : 0,
+                progress != null ? sign : 0,
+                remainingHours != null ? sign * remainingHours : 0);
+        if (sign > 0) {
+            return upsert;
+        }
+        return upsert.then(reportRepository.deleteStatIfEmpty(report.getUserId(), report.getDate(), tagId));
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.dailyreportbackend.reactive;
+
+import com.example.dailyreportbackend.security.JwtAuthenticationCache;
+import com.example.dailyreportbackend.security.JwtConfig;
+import com.example.dailyreportbackend.security.JwtUtil;
+import com.example.dailyreportbackend.security.TokenRevocationRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+
+import java.util.Arrays;
+
+// Tương đương JwtConfig cho WebFlux: không session, không CSRF, cùng danh sách API công khai
+@Configuration
+@EnableWebFluxSecurity
+@Profile(ReactiveReportApplication.PROFILE)
+public class ReactiveSecurityConfig {
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http,
+                                                         JwtUtil jwtUtil,
+                                                         JwtAuthenticationCache jwtAuthenticationCache,
+                                                         TokenRevocationRegistry tokenRevocationRegistry,
+                                                         @Value("${jwt.revocation-check.enabled:true}") boolean revocationCheckEnabled,
+                                                         @Value("${cors.allowed.origins}") String allowedOrigins) {
+        JwtWebFilter jwtWebFilter =
+                new JwtWebFilter(jwtUtil, jwtAuthenticationCache, tokenRevocationRegistry, revocationCheckEnabled);
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .cors(cors -> cors.configurationSource(corsConfigurationSource(allowedOrigins)))
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                // Không lưu SecurityContext vào WebSession: mỗi request tự xác thực bằng token
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(exchange -> exchange
+                        .pathMatchers(JwtConfig.PUBLIC_ENDPOINTS).permitAll()
+                        .anyExchange().authenticated())
+                // Chưa đăng nhập trả 403 như bản MVC, thay cho 401 + WWW-Authenticate mặc định của WebFlux
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.FORBIDDEN)))
+                .addFilterAt(jwtWebFilter, SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    private CorsConfigurationSource corsConfigurationSource(String allowedOrigins) {
+        CorsConfiguration configuration = new CorsConfiguration();
+        configuration.setAllowedOrigins(Arrays.asList(allowedOrigins.split(",")));
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type"));
+        configuration.setAllowCredentials(true);
+
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", configuration);
+        return source;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.dailyreportbackend.reactive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Cấp id báo cáo theo khối từ bảng report_seq, cùng cách với bộ sinh pooled của Hibernate (Report.id, allocationSize = 50):
+// đọc next_val = v rồi tăng lên v + 50, khối nhận được là (v - 49 .. v). Hai bản MVC và reactive dùng chung bảng nên không trùng id.
+// Tăng bằng compare-and-set (WHERE next_val = v) thay cho SELECT ... FOR UPDATE để không giữ khóa dòng qua nhiều round-trip
+@Slf4j
+@Component
+@Profile(ReactiveReportApplication.PROFILE)
+public class ReportIdAllocator {
+
+    // Phải bằng allocationSize của @SequenceGenerator trên Report.id
+    static final int ALLOCATION_SIZE = 50;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    // Khối hiện tại; khối rỗng ban đầu buộc lần gọi đầu tiên phải lấy khối mới
+    private volatile Block current = new Block(1, 0);
+    // Lần lấy khối đang chạy, các request cùng hết id chờ chung thay vì mỗi request lấy một khối
+    private Mono<Block> refilling;
+
+    // Phải gọi ngoài transaction của request: nếu không, dòng report_seq bị khóa tới khi request đó commit
+    public Mono<Long> nextId() {
+        return Mono.defer(() -> {
+            Block block = current;
+            long id = block.next.getAndIncrement();
+            if (id <= block.last) {
+                return Mono.just(id);
+            }
+            return refill(block).then(nextId());
+        });
+    }
+
+    private synchronized Mono<Block> refill(Block exhausted) {
+        if (current != exhausted) {
+            return Mono.just(current);
+        }
+        if (refilling == null) {
+            refilling = fetchBlock()
+                    .map(last -> new Block(last - ALLOCATION_SIZE + 1, last))
+                    .doOnNext(this::install)
+                    .doOnError(e -> clearRefilling())
+                    .cache();
+        }
+        return refilling;
+    }
+
+    private synchronized void install(Block block) {
+        current = block;
+        refilling = null;
+    }
+
+    private synchronized void clearRefilling() {
+        refilling = null;
+    }
+
+    // Một instance khác (MVC hoặc reactive) vừa lấy khối thì UPDATE không khớp dòng nào, đọc lại và thử tiếp
+    private Mono<Long> fetchBlock() {
+        return databaseClient.sql("SELECT next_val FROM report_seq")
+                .map(row -> row.get("next_val", Long.class))
+                .one()
+                .switchIfEmpty(Mono.error(new IllegalStateException("Bảng report_seq chưa được khởi tạo")))
+                .flatMap(value -> databaseClient.sql("UPDATE report_seq SET next_val = :next WHERE next_val = :value")
+                        .bind("next", value + ALLOCATION_SIZE)
+                        .bind("value", value)
+                        .fetch()
+                        .rowsUpdated()
+                        .flatMap(updated -> updated == 1 ? Mono.just(value) : Mono.<Long>empty()))
+                .repeatWhenEmpty(attempts -> attempts.doOnNext(attempt ->
+                        log.debug("report_seq changed concurrently, retrying (attempt {})", attempt + 1)));
+    }
+
+    private static final class Block {
+        private final AtomicLong next;
+        private final long last;
+
+        private Block(long first, long last) {
+            this.next = new AtomicLong(first);
+            this.last = last;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.dailyreportbackend.repository;
+
+import com.example.dailyreportbackend.model.ReportArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface ReportArchiveRepository extends JpaRepository<ReportArchive, Long> {
+
+    // Sao chép báo cáo sang bảng archive bằng một câu INSERT ... SELECT, không nạp entity vào bộ nhớ
+    @Modifying
+    @Query("INSERT INTO ReportArchive (id, title, content, date, tagId, tagIds, userId, progress, remainingHours, " +
+           "issue, solution, archivedAt) " +
+           "SELECT r.id, r.title, r.content, r.date, r.tagId, r.tagIds, r.userId, r.progress, r.remainingHours, " +
+           "r.issue, r.solution, LOCAL DATETIME FROM Report r WHERE r.id IN :ids")
+    int copyFromReports(@Param("ids") Collection<Long> ids);
+}
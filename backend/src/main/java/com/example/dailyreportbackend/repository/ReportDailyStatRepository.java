@@ -0,0 +1,46 @@
+package com.example.dailyreportbackend.repository;
+
+import com.example.dailyreportbackend.model.ReportDailyStat;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ReportDailyStatRepository extends JpaRepository<ReportDailyStat, Long> {
+
+    List<ReportDailyStat> findByUserIdAndDateBetweenOrderByDateAsc(Long userId, LocalDate from, LocalDate to);
+
+    // Cộng dồn (hoặc trừ khi delta âm) vào dòng tổng hợp, tạo dòng mới nếu chưa có.
+    // Khai báo bảng bị ghi để Hibernate không xóa toàn bộ cache cấp 2 sau câu native này
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "report_daily_stat"))
+    @Query(value = "INSERT INTO report_daily_stat " +
+            "(user_id, `date`, tag_id, report_count, progress_sum, progress_count, remaining_hours_sum) " +
+            "VALUES (:userId, :date, :tagId, :reportCount, :progressSum, :progressCount, :remainingHoursSum) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "report_count = report_count + VALUES(report_count), " +
+            "progress_sum = progress_sum + VALUES(progress_sum), " +
+            "progress_count = progress_count + VALUES(progress_count), " +
+            "remaining_hours_sum = remaining_hours_sum + VALUES(remaining_hours_sum)",
+            nativeQuery = true)
+    void upsertDelta(@Param("userId") Long userId,
+                     @Param("date") LocalDate date,
+                     @Param("tagId") Long tagId,
+                     @Param("reportCount") long reportCount,
+                     @Param("progressSum") long progressSum,
+                     @Param("progressCount") long progressCount,
+                     @Param("remainingHoursSum") double remainingHoursSum);
+
+    // Dọn các dòng không còn báo cáo nào sau khi trừ
+    @Modifying
+    @Query("DELETE FROM ReportDailyStat s WHERE s.userId = :userId AND s.date = :date AND s.tagId = :tagId AND s.reportCount <= 0")
+    void deleteIfEmpty(@Param("userId") Long userId, @Param("date") LocalDate date, @Param("tagId") Long tagId);
+}
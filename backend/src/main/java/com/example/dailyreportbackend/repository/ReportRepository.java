@@ -1,27 +1,59 @@
 package com.example.dailyreportbackend.repository;
 
+import com.example.dailyreportbackend.dto.ReportSummary;
 import com.example.dailyreportbackend.model.Report;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ReportRepository extends JpaRepository<Report, Long> {
-    List<Report> findByUserId(Long userId);
-    List<Report> findByUserIdAndDate(Long userId, String date);
-    List<Report> findByUserIdAndTagId(Long userId, Long tagId);
+    // Projection cho danh sách: chỉ SELECT các cột cần hiển thị, không hydrate entity
+    String SUMMARY_SELECT = "SELECT new com.example.dailyreportbackend.dto.ReportSummary(" +
+            "r.id, r.title, r.date, r.tagId, r.tagIds, r.userId, r.progress, r.remainingHours) FROM Report r ";
+
+    List<ReportSummary> findSummariesByUserId(Long userId);
+    List<ReportSummary> findSummariesByUserIdAndDate(Long userId, LocalDate date);
+    List<ReportSummary> findSummariesByUserIdAndTagId(Long userId, Long tagId);
+    // Khoảng ngày (hai đầu bao gồm) đi theo idx_report_user_date / idx_report_user_tag_date,
+    // và chỉ quét các partition tháng liên quan khi bảng được partition (xem db/partitioning)
+    List<ReportSummary> findSummariesByUserIdAndDateBetweenOrderByDateAscIdAsc(Long userId, LocalDate from, LocalDate to);
+    List<ReportSummary> findSummariesByUserIdAndTagIdAndDateBetweenOrderByDateAscIdAsc(Long userId, Long tagId,
+                                                                                     LocalDate from, LocalDate to);
+    // Nạp một trang kết quả của bộ lọc tag (ReportTagIndex), thứ tự do người gọi sắp lại
+    List<ReportSummary> findSummariesByIdIn(Collection<Long> ids);
+    List<ReportSummary> findSummariesByUserIdAndIdIn(Long userId, Collection<Long> ids);
+    // Báo cáo cũ nhất trên mọi user cho job lưu giữ (idx_report_date, V7__report_archive.sql)
+    List<ReportSummary> findSummariesByDateBeforeOrderByDateAscIdAsc(LocalDate cutoff, Pageable pageable);
+
+    // Xóa hàng loạt bằng một câu DELETE, không nạp entity. Hibernate tự làm mất hiệu lực cache cấp 2 của Report
+    // và query cache sau câu DML này
+    @Modifying
+    @Query("DELETE FROM Report r WHERE r.id IN :ids")
+    int bulkDeleteByIds(@Param("ids") Collection<Long> ids);
+    // Kết quả đếm nằm trong query cache, tự mất hiệu lực khi bảng report thay đổi
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Long countByUserId(Long userId);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Long countByUserIdAndTagId(Long userId, Long tagId);
     
     // Phương thức mới với phân trang
-    Page<Report> findByUserId(Long userId, Pageable pageable);
-    Page<Report> findByUserIdAndDate(Long userId, String date, Pageable pageable);
-    Page<Report> findByUserIdAndTagId(Long userId, Long tagId, Pageable pageable);
-    Page<Report> findByUserIdAndDateAndTagId(Long userId, String date, Long tagId, Pageable pageable);
+    Page<ReportSummary> findSummariesByUserId(Long userId, Pageable pageable);
+    Page<ReportSummary> findSummariesByUserIdAndDate(Long userId, LocalDate date, Pageable pageable);
+    Page<ReportSummary> findSummariesByUserIdAndTagId(Long userId, Long tagId, Pageable pageable);
+    Page<ReportSummary> findSummariesByUserIdAndDateAndTagId(Long userId, LocalDate date, Long tagId, Pageable pageable);
     
     // Phương thức tìm kiếm
     @Query("SELECT r FROM Report r WHERE r.userId = :userId AND " +
@@ -37,4 +69,57 @@ public interface ReportRepository extends JpaRepository<Report, Long> {
            "LOWER(r.issue) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
            "LOWER(r.solution) LIKE LOWER(CONCAT('%', :keyword, '%')))")
     Page<Report> searchByKeywordPaged(@Param("userId") Long userId, @Param("keyword") String keyword, Pageable pageable);
-} 
\ No newline at end of file
+
+    // Báo cáo cũ có date = NULL (xem V2__report_date_column.sql) không đi theo keyset (date, id) được
+    @Query(SUMMARY_SELECT + "WHERE r.userId = :userId AND r.date IS NULL " +
+           "AND (:tagId IS NULL OR r.tagId = :tagId) ORDER BY r.id DESC")
+    List<ReportSummary> findUndatedSummaries(@Param("userId") Long userId, @Param("tagId") Long tagId);
+
+    // Phân trang keyset (seek) theo (date, id): trả về Slice nên không chạy count(*).
+    // MySQL xếp NULL trước khi ASC và sau khi DESC, nên báo cáo không có ngày là đoạn đầu (ASC) hoặc đoạn cuối (DESC)
+    @Query(SUMMARY_SELECT + "WHERE r.userId = :userId ORDER BY r.date DESC, r.id DESC")
+    Slice<ReportSummary> seekFirstDesc(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE r.userId = :userId AND " +
+           "(r.date < :date OR (r.date = :date AND r.id < :id) OR r.date IS NULL) ORDER BY r.date DESC, r.id DESC")
+    Slice<ReportSummary> seekAfterDesc(@Param("userId") Long userId, @Param("date") LocalDate date,
+                                       @Param("id") Long id, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE r.userId = :userId ORDER BY r.date ASC, r.id ASC")
+    Slice<ReportSummary> seekFirstAsc(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE r.userId = :userId AND " +
+           "(r.date > :date OR (r.date = :date AND r.id > :id)) ORDER BY r.date ASC, r.id ASC")
+    Slice<ReportSummary> seekAfterAsc(@Param("userId") Long userId, @Param("date") LocalDate date,
+                                      @Param("id") Long id, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE r.userId = :userId AND r.tagId = :tagId " +
+           "ORDER BY r.date DESC, r.id DESC")
+    Slice<ReportSummary> seekFirstByTagDesc(@Param("userId") Long userId, @Param("tagId") Long tagId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE r.userId = :userId AND r.tagId = :tagId AND " +
+           "(r.date < :date OR (r.date = :date AND r.id < :id) OR r.date IS NULL) ORDER BY r.date DESC, r.id DESC")
+    Slice<ReportSummary> seekAfterByTagDesc(@Param("userId") Long userId, @Param("tagId") Long tagId,
+                                            @Param("date") LocalDate date, @Param("id") Long id, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE r.userId = :userId AND r.tagId = :tagId " +
+           "ORDER BY r.date ASC, r.id ASC")
+    Slice<ReportSummary> seekFirstByTagAsc(@Param("userId") Long userId, @Param("tagId") Long tagId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE r.userId = :userId AND r.tagId = :tagId AND " +
+           "(r.date > :date OR (r.date = :date AND r.id > :id)) ORDER BY r.date ASC, r.id ASC")
+    Slice<ReportSummary> seekAfterByTagAsc(@Param("userId") Long userId, @Param("tagId") Long tagId,
+                                           @Param("date") LocalDate date, @Param("id") Long id, Pageable pageable);
+
+    // Cursor nằm trong đoạn không có ngày: DESC chỉ còn các báo cáo không có ngày id nhỏ hơn,
+    // ASC còn phần còn lại của đoạn đó rồi đến toàn bộ báo cáo có ngày
+    @Query(SUMMARY_SELECT + "WHERE r.userId = :userId AND (:tagId IS NULL OR r.tagId = :tagId) AND " +
+           "r.date IS NULL AND r.id < :id ORDER BY r.date DESC, r.id DESC")
+    Slice<ReportSummary> seekAfterUndatedDesc(@Param("userId") Long userId, @Param("tagId") Long tagId,
+                                              @Param("id") Long id, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE r.userId = :userId AND (:tagId IS NULL OR r.tagId = :tagId) AND " +
+           "((r.date IS NULL AND r.id > :id) OR r.date IS NOT NULL) ORDER BY r.date ASC, r.id ASC")
+    Slice<ReportSummary> seekAfterUndatedAsc(@Param("userId") Long userId, @Param("tagId") Long tagId,
+                                             @Param("id") Long id, Pageable pageable);
+}
\ No newline at end of file
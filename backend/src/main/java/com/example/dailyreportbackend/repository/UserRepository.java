@@ -2,9 +2,20 @@ package com.example.dailyreportbackend.repository;
 
 import com.example.dailyreportbackend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
-    User findByEmail(String email);
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+
+    // Chỉ ghi đè khi hash chưa bị đổi ở nơi khác (ví dụ đặt lại mật khẩu trong lúc đang rehash)
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newPassword WHERE u.id = :id AND u.password = :oldPassword")
+    int updatePasswordIfUnchanged(@Param("id") Long id,
+                                  @Param("oldPassword") String oldPassword,
+                                  @Param("newPassword") String newPassword);
 } 
\ No newline at end of file
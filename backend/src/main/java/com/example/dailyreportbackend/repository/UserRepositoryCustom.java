@@ -0,0 +1,8 @@
+package com.example.dailyreportbackend.repository;
+
+import com.example.dailyreportbackend.model.User;
+
+// Fragment tự cài đặt, được Spring Data ưu tiên hơn truy vấn sinh từ tên phương thức
+public interface UserRepositoryCustom {
+    User findByEmail(String email);
+}
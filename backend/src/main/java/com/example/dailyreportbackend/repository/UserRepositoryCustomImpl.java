@@ -0,0 +1,25 @@
+package com.example.dailyreportbackend.repository;
+
+import com.example.dailyreportbackend.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Tra cứu theo natural id để dùng cache email -> id, không truy vấn DB khi cache còn
+    @Override
+    @Transactional(readOnly = true)
+    public User findByEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .load(email);
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.dailyreportbackend.search;
+
+import com.example.dailyreportbackend.model.Report;
+import com.example.dailyreportbackend.util.TransactionCallbacks;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Chỉ mục đảo ngược (term -> danh sách report id) cho tìm kiếm báo cáo, chia shard theo userId.
+ * Mỗi term trong truy vấn khớp với từ có chứa nó (giữ ngữ nghĩa chuỗi con của LIKE '%kw%' cũ, "log" khớp "catalog"),
+ * tất cả term đều phải khớp (AND) nhưng không cần liền nhau hay đúng thứ tự như cụm từ trong LIKE.
+ * Kết quả được xếp hạng theo tf-idf có trọng số theo trường.
+ * Thay đổi gọi trong transaction chỉ được áp dụng sau khi commit, rollback không để lại report id không tồn tại.
+ * Trong lúc dựng lại từ DB (beginRebuild .. markReady), thay đổi đã commit được giữ lại và áp dụng sau trang cuối,
+ * để trang đọc trước một lần xóa/sửa không đưa bản cũ trở lại chỉ mục.
+ */
+@Component
+public class ReportSearchIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int TITLE_WEIGHT = 3;
+    private static final int BODY_WEIGHT = 1;
+
+    private final Map<Long, Shard> shards = new ConcurrentHashMap<>();
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    // Khác null khi đang dựng lại: các thay đổi commit trong lúc đó, theo thứ tự commit
+    private List<Runnable> pendingDuringRebuild;
+
+    private volatile boolean ready = false;
+
+    // Truy vấn không có term nào (rỗng, chỉ gồm ký tự đặc biệt) hoặc khi chỉ mục chưa dựng xong thì dùng DB
+    public boolean canSearch(String query) {
+        return ready && !tokenize(query).isEmpty();
+    }
+
+    public void beginRebuild() {
+        rebuildLock.lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    // Phát lại các thay đổi giữ trong lúc dựng lại rồi mới cho tìm kiếm dùng chỉ mục
+    public void markReady() {
+        rebuildLock.lock();
+        try {
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.forEach(Runnable::run);
+                pendingDuringRebuild = null;
+            }
+            this.ready = true;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    public void index(Report report) {
+        Runnable upsert = upsert(report);
+        if (upsert != null) {
+            TransactionCallbacks.afterCommit(() -> apply(upsert));
+        }
+    }
+
+    // Báo cáo đọc từ DB khi dựng lại: áp dụng ngay, không chờ sau các thay đổi đang giữ
+    public void load(Report report) {
+        Runnable upsert = upsert(report);
+        if (upsert != null) {
+            upsert.run();
+        }
+    }
+
+    public void remove(Long userId, Long reportId) {
+        TransactionCallbacks.afterCommit(() -> apply(() -> removeNow(userId, reportId)));
+    }
+
+    private void apply(Runnable change) {
+        rebuildLock.lock();
+        try {
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(change);
+                return;
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+        change.run();
+    }
+
+    private Runnable upsert(Report report) {
+        if (report.getId() == null || report.getUserId() == null) {
+            return null;
+        }
+
+        Long userId = report.getUserId();
+        Long reportId = report.getId();
+        // Tách term ngay, entity có thể bị clear khỏi persistence context trước khi commit
+        Map<String, Integer> weights = new HashMap<>();
+        addTerms(weights, report.getTitle(), TITLE_WEIGHT);
+        addTerms(weights, report.getContent(), BODY_WEIGHT);
+        addTerms(weights, report.getIssue(), BODY_WEIGHT);
+        addTerms(weights, report.getSolution(), BODY_WEIGHT);
+
+        return () -> {
+            Shard shard = shards.computeIfAbsent(userId, id -> new Shard());
+            shard.lock.writeLock().lock();
+            try {
+                shard.removeReport(reportId);
+                for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+                    shard.postings.computeIfAbsent(entry.getKey(), term -> new HashMap<>())
+                            .put(reportId, entry.getValue());
+                }
+                shard.termsByReport.put(reportId, weights.keySet().toArray(new String[0]));
+            } finally {
+                shard.lock.writeLock().unlock();
+            }
+        };
+    }
+
+    private void removeNow(Long userId, Long reportId) {
+        Shard shard = shards.get(userId);
+        if (shard == null) {
+            return;
+        }
+        shard.lock.writeLock().lock();
+        try {
+            shard.removeReport(reportId);
+        } finally {
+            shard.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Trả về danh sách report id khớp với truy vấn, đã xếp hạng giảm dần theo điểm
+     * (cùng điểm thì id mới hơn đứng trước).
+     */
+    public List<Long> search(Long userId, String query) {
+        List<String> queryTerms = tokenize(query);
+        Shard shard = shards.get(userId);
+        if (queryTerms.isEmpty() || shard == null) {
+            return new ArrayList<>();
+        }
+
+        shard.lock.readLock().lock();
+        try {
+            int documentCount = Math.max(shard.termsByReport.size(), 1);
+            Map<Long, Double> scores = null;
+
+            for (String queryTerm : queryTerms) {
+                Map<Long, Double> termScores = new HashMap<>();
+                // Duyệt từ điển của user (nhỏ hơn nhiều so với số dòng mà LIKE phải quét)
+                for (Map.Entry<String, Map<Long, Integer>> match : shard.postings.entrySet()) {
+                    String term = match.getKey();
+                    if (!term.contains(queryTerm)) {
+                        continue;
+                    }
+                    Map<Long, Integer> postings = match.getValue();
+                    double idf = Math.log(1.0 + (double) documentCount / postings.size());
+                    // Khớp chính xác > khớp tiền tố > khớp giữa từ
+                    double boost = term.equals(queryTerm) ? 1.0 : term.startsWith(queryTerm) ? 0.5 : 0.25;
+                    for (Map.Entry<Long, Integer> posting : postings.entrySet()) {
+                        termScores.merge(posting.getKey(), posting.getValue() * idf * boost, Double::sum);
+                    }
+                }
+
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                        entry.setValue(entry.getValue() + termScores.get(entry.getKey()));
+                    }
+                }
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+
+            List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<Long, Double>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())));
+
+            List<Long> reportIds = new ArrayList<>(ranked.size());
+            for (Map.Entry<Long, Double> entry : ranked) {
+                reportIds.add(entry.getKey());
+            }
+            return reportIds;
+        } finally {
+            shard.lock.readLock().unlock();
+        }
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static void addTerms(Map<String, Integer> weights, String text, int weight) {
+        for (String token : tokenize(text)) {
+            weights.merge(token, weight, Integer::sum);
+        }
+    }
+
+    private static final class Shard {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+        private final Map<Long, String[]> termsByReport = new HashMap<>();
+
+        private void removeReport(Long reportId) {
+            String[] terms = termsByReport.remove(reportId);
+            if (terms == null) {
+                return;
+            }
+            for (String term : terms) {
+                Map<Long, Integer> reportIds = postings.get(term);
+                if (reportIds != null) {
+                    reportIds.remove(reportId);
+                    if (reportIds.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        }
+    }
+}
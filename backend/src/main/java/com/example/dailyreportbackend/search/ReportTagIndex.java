@@ -0,0 +1,264 @@
+package com.example.dailyreportbackend.search;
+
+import com.example.dailyreportbackend.model.Report;
+import com.example.dailyreportbackend.util.TransactionCallbacks;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Chỉ mục bitmap (tag -> report id, ngày -> report id) cho bộ lọc nhiều tag, chia shard theo userId.
+ * Lọc AND/OR theo tag kết hợp khoảng ngày là phép giao/hợp các Roaring64Bitmap nén,
+ * không phải thêm JOIN/điều kiện vào SQL khi số tag trong bộ lọc tăng lên.
+ * Như ReportSearchIndex, thay đổi gọi trong transaction chỉ được áp dụng sau khi commit,
+ * và thay đổi commit trong lúc dựng lại được phát lại trong markReady.
+ */
+@Component
+public class ReportTagIndex {
+
+    private static final Comparator<Map.Entry<Long, LocalDate>> NEWEST_FIRST =
+            Map.Entry.<Long, LocalDate>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder()));
+
+    private final Map<Long, Shard> shards = new ConcurrentHashMap<>();
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    // Khác null khi đang dựng lại: các thay đổi commit trong lúc đó, theo thứ tự commit
+    private List<Runnable> pendingDuringRebuild;
+
+    private volatile boolean ready = false;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void beginRebuild() {
+        rebuildLock.lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    public void markReady() {
+        rebuildLock.lock();
+        try {
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.forEach(Runnable::run);
+                pendingDuringRebuild = null;
+            }
+            this.ready = true;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    public void index(Report report) {
+        Runnable upsert = upsert(report);
+        if (upsert != null) {
+            TransactionCallbacks.afterCommit(() -> apply(upsert));
+        }
+    }
+
+    // Báo cáo đọc từ DB khi dựng lại, áp dụng ngay
+    public void load(Report report) {
+        Runnable upsert = upsert(report);
+        if (upsert != null) {
+            upsert.run();
+        }
+    }
+
+    public void remove(Long userId, Long reportId) {
+        TransactionCallbacks.afterCommit(() -> apply(() -> removeNow(userId, reportId)));
+    }
+
+    private void apply(Runnable change) {
+        rebuildLock.lock();
+        try {
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(change);
+                return;
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+        change.run();
+    }
+
+    private Runnable upsert(Report report) {
+        if (report.getId() == null || report.getUserId() == null) {
+            return null;
+        }
+        Long userId = report.getUserId();
+        long reportId = report.getId();
+        // Chụp giá trị ngay, entity có thể bị clear hoặc sửa tiếp trước khi commit
+        long[] tagIds = report.getTagIds() != null
+                ? report.getTagIds().stream().mapToLong(Long::longValue).toArray()
+                : new long[0];
+        LocalDate reportDate = report.getDate();
+
+        return () -> {
+            Shard shard = shards.computeIfAbsent(userId, id -> new Shard());
+            shard.lock.writeLock().lock();
+            try {
+                shard.removeReport(reportId);
+                for (long tagId : tagIds) {
+                    shard.byTag.computeIfAbsent(tagId, id -> new Roaring64Bitmap()).addLong(reportId);
+                }
+                if (reportDate != null) {
+                    shard.byDate.computeIfAbsent(reportDate, date -> new Roaring64Bitmap()).addLong(reportId);
+                }
+                shard.all.addLong(reportId);
+                shard.entries.put(reportId, new Entry(tagIds, reportDate));
+            } finally {
+                shard.lock.writeLock().unlock();
+            }
+        };
+    }
+
+    private void removeNow(Long userId, Long reportId) {
+        Shard shard = shards.get(userId);
+        if (shard == null) {
+            return;
+        }
+        shard.lock.writeLock().lock();
+        try {
+            shard.removeReport(reportId);
+        } finally {
+            shard.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Report id khớp bộ lọc. tagIds rỗng thì không lọc theo tag; matchAll = true yêu cầu có đủ mọi tag (AND),
+     * ngược lại chỉ cần một tag (OR). from/to null thì không giới hạn đầu đó, báo cáo không có ngày bị loại
+     * khi có giới hạn ngày. Bitmap trả về là bản sao, người gọi được phép sửa.
+     */
+    public Roaring64Bitmap filter(Long userId, Collection<Long> tagIds, boolean matchAll, LocalDate from, LocalDate to) {
+        Shard shard = shards.get(userId);
+        if (shard == null) {
+            return new Roaring64Bitmap();
+        }
+        shard.lock.readLock().lock();
+        try {
+            Roaring64Bitmap result = null;
+            for (Long tagId : tagIds) {
+                Roaring64Bitmap reports = shard.byTag.get(tagId);
+                if (reports == null) {
+                    if (matchAll) {
+                        return new Roaring64Bitmap();
+                    }
+                    continue;
+                }
+                if (result == null) {
+                    result = reports.clone();
+                } else if (matchAll) {
+                    result.and(reports);
+                } else {
+                    result.or(reports);
+                }
+            }
+            if (!tagIds.isEmpty() && result == null) {
+                return new Roaring64Bitmap();
+            }
+
+            if (from != null || to != null) {
+                NavigableMap<LocalDate, Roaring64Bitmap> days = shard.byDate;
+                if (from != null) {
+                    days = days.tailMap(from, true);
+                }
+                if (to != null) {
+                    days = days.headMap(to, true);
+                }
+                Roaring64Bitmap inRange = new Roaring64Bitmap();
+                for (Roaring64Bitmap reports : days.values()) {
+                    inRange.or(reports);
+                }
+                if (result == null) {
+                    result = inRange;
+                } else {
+                    result.and(inRange);
+                }
+            }
+            return result != null ? result : shard.all.clone();
+        } finally {
+            shard.lock.readLock().unlock();
+        }
+    }
+
+    // Sắp xếp report id theo ngày giảm dần (không có ngày xếp cuối), cùng ngày thì id mới hơn trước
+    public List<Long> newestFirst(Long userId, Roaring64Bitmap reportIds) {
+        Shard shard = shards.get(userId);
+        if (shard == null || reportIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Map.Entry<Long, LocalDate>> dated = new ArrayList<>((int) reportIds.getLongCardinality());
+        shard.lock.readLock().lock();
+        try {
+            reportIds.forEach(reportId -> {
+                Entry entry = shard.entries.get(reportId);
+                // Báo cáo không có ngày coi như LocalDate.MIN để xếp cuối
+                dated.add(Map.entry(reportId, entry != null && entry.date != null ? entry.date : LocalDate.MIN));
+            });
+        } finally {
+            shard.lock.readLock().unlock();
+        }
+        dated.sort(NEWEST_FIRST);
+
+        List<Long> ordered = new ArrayList<>(dated.size());
+        for (Map.Entry<Long, LocalDate> entry : dated) {
+            ordered.add(entry.getKey());
+        }
+        return ordered;
+    }
+
+    private record Entry(long[] tagIds, LocalDate date) {
+    }
+
+    private static final class Shard {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<Long, Roaring64Bitmap> byTag = new HashMap<>();
+        private final NavigableMap<LocalDate, Roaring64Bitmap> byDate = new TreeMap<>();
+        private final Roaring64Bitmap all = new Roaring64Bitmap();
+        private final Map<Long, Entry> entries = new HashMap<>();
+
+        private void removeReport(long reportId) {
+            Entry entry = entries.remove(reportId);
+            if (entry == null) {
+                return;
+            }
+            all.removeLong(reportId);
+            for (long tagId : entry.tagIds) {
+                Roaring64Bitmap reports = byTag.get(tagId);
+                if (reports != null) {
+                    reports.removeLong(reportId);
+                    if (reports.isEmpty()) {
+                        byTag.remove(tagId);
+                    }
+                }
+            }
+            if (entry.date != null) {
+                Roaring64Bitmap reports = byDate.get(entry.date);
+                if (reports != null) {
+                    reports.removeLong(reportId);
+                    if (reports.isEmpty()) {
+                        byDate.remove(entry.date);
+                    }
+                }
+            }
+        }
+    }
+}
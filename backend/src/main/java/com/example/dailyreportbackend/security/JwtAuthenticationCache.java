@@ -0,0 +1,85 @@
+package com.example.dailyreportbackend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Cache các token đã verify kèm UserDetails, mỗi entry hết hạn tại exp của token hoặc sau jwt.cache.ttl nếu sớm hơn:
+// UserDetails lấy từ DB (chế độ không stateless) chỉ được dùng lại tối đa ttl, sau đó user được tải lại.
+// Khóa là nguyên giá trị header Authorization ("Bearer <token>")
+@Component
+public class JwtAuthenticationCache {
+
+    private final Cache<String, CachedAuthentication> cache;
+
+    public JwtAuthenticationCache(@Value("${jwt.cache.max-size:10000}") long maxSize,
+                                  @Value("${jwt.cache.ttl:PT5M}") Duration ttl,
+                                  ObjectProvider<MeterRegistry> meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry(ttl.toNanos()))
+                .recordStats()
+                .build();
+        // Xuất cache.gets{result=hit|miss}, cache.evictions... với tag cache=jwt.authentication
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, "jwt.authentication"));
+    }
+
+    public CachedAuthentication get(String authorizationHeader) {
+        return cache.getIfPresent(authorizationHeader);
+    }
+
+    public CachedAuthentication put(String authorizationHeader, Claims claims, UserDetails userDetails) {
+        CachedAuthentication authentication =
+                new CachedAuthentication(claims, userDetails, claims.getExpiration().getTime());
+        cache.put(authorizationHeader, authentication);
+        return authentication;
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class CachedAuthentication {
+        private final Claims claims;
+        private final UserDetails userDetails;
+        private final long expiresAtMillis;
+    }
+
+    private static class TokenExpiry implements Expiry<String, CachedAuthentication> {
+        private final long ttlNanos;
+
+        private TokenExpiry(long ttlNanos) {
+            this.ttlNanos = ttlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String token, CachedAuthentication value, long currentTime) {
+            long remainingMillis = value.getExpiresAtMillis() - System.currentTimeMillis();
+            return Math.min(TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0)), ttlNanos);
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, CachedAuthentication value, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, CachedAuthentication value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.dailyreportbackend.security;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -18,16 +21,33 @@ import java.util.Arrays;
 @EnableWebSecurity
 public class JwtConfig {
 
+    // Các API không cần đăng nhập; JwtRequestFilter bỏ qua các đường dẫn này, ReactiveSecurityConfig dùng chung danh sách
+    public static final String[] PUBLIC_ENDPOINTS = {
+            "/api/auth/**", "/api/tags", "/actuator/health/**"
+    };
+
+    private static final String PROMETHEUS_ENDPOINT = "/actuator/prometheus";
+
     @Autowired
     private JwtRequestFilter jwtRequestFilter;
 
+    // Cổng quản trị riêng (MANAGEMENT_SERVER_PORT), chỉ mở trong mạng nội bộ; -1 = actuator dùng chung cổng API
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .authorizeHttpRequests(auth -> auth
-                .requestMatchers("/api/auth/**", "/api/tags").permitAll()
+                .requestMatchers(PUBLIC_ENDPOINTS).permitAll()
+                // Prometheus scrape không cần token chỉ khi đi qua cổng quản trị riêng, trên cổng API phải đăng nhập
+                .requestMatchers(request -> managementPort > 0 && request.getLocalPort() == managementPort
+                        && PROMETHEUS_ENDPOINT.equals(request.getRequestURI())).permitAll()
+                // StreamingResponseBody (export, NDJSON) hoàn tất qua ASYNC dispatch: request gốc đã được xác thực,
+                // còn session STATELESS nên lần dispatch sau không còn SecurityContext để kiểm tra lại
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .anyRequest().authenticated()
             )
             .sessionManagement(session -> session
@@ -38,6 +58,15 @@ public class JwtConfig {
         return http.build();
     }
 
+    // JwtRequestFilter là @Component nên Spring Boot tự đăng ký thêm vào chuỗi filter của servlet;
+    // tắt bản đăng ký đó để filter chỉ chạy một lần trong SecurityFilterChain
+    @Bean
+    public FilterRegistrationBean<JwtRequestFilter> jwtRequestFilterRegistration(JwtRequestFilter filter) {
+        FilterRegistrationBean<JwtRequestFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -1,66 +1,168 @@
 package com.example.dailyreportbackend.security;
 
+import com.example.dailyreportbackend.logging.LogMarkers;
 import com.example.dailyreportbackend.service.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Arrays;
 
+@Slf4j
 @Component
 public class JwtRequestFilter extends OncePerRequestFilter {
 
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private static final String ANY_SUBPATH = "/**";
+    private static final String ALREADY_FILTERED_ATTRIBUTE = JwtRequestFilter.class.getName() + ALREADY_FILTERED_SUFFIX;
+
+    // Các API permitAll (JwtConfig.PUBLIC_ENDPOINTS) không cần parse token. Chỉ hỗ trợ dạng "/a/b" và "/a/**",
+    // so khớp bằng equals/startsWith vì AntPathRequestMatcher cấp phát vài trăm byte cho mỗi request
+    private static final String[] PUBLIC_PATHS = Arrays.stream(JwtConfig.PUBLIC_ENDPOINTS)
+            .filter(pattern -> !pattern.endsWith(ANY_SUBPATH))
+            .toArray(String[]::new);
+    private static final String[] PUBLIC_PREFIXES = Arrays.stream(JwtConfig.PUBLIC_ENDPOINTS)
+            .filter(pattern -> pattern.endsWith(ANY_SUBPATH))
+            .map(pattern -> pattern.substring(0, pattern.length() - ANY_SUBPATH.length()))
+            .toArray(String[]::new);
+
+    // Dùng chung cho mọi request thay vì tạo mới mỗi lần
+    private final WebAuthenticationDetailsSource authenticationDetailsSource = new WebAuthenticationDetailsSource();
+    private final SecurityContextHolderStrategy securityContextHolderStrategy = SecurityContextHolder.getContextHolderStrategy();
+
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private JwtAuthenticationCache jwtAuthenticationCache;
+
+    @Autowired
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    // Stateless: principal được dựng từ claims, không truy vấn bảng user
+    @Value("${jwt.stateless:false}")
+    private boolean stateless;
+
+    @Value("${jwt.revocation-check.enabled:true}")
+    private boolean revocationCheckEnabled;
+
+    // Mặc định OncePerRequestFilter nối chuỗi tên attribute ở mỗi request
+    @Override
+    protected String getAlreadyFilteredAttributeName() {
+        return ALREADY_FILTERED_ATTRIBUTE;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getPathInfo() != null
+                ? request.getServletPath() + request.getPathInfo()
+                : request.getServletPath();
+        for (String publicPath : PUBLIC_PATHS) {
+            if (path.equals(publicPath)) {
+                return true;
+            }
+        }
+        for (String prefix : PUBLIC_PREFIXES) {
+            if (path.startsWith(prefix) && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
 
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String email = null;
-        String jwt = null;
+        // Kiểm tra header Authorization, chỉ xác thực khi chưa có thông tin trong SecurityContext
+        if (authorizationHeader != null && authorizationHeader.startsWith(BEARER_PREFIX)) {
+            SecurityContext context = securityContextHolderStrategy.getContext();
+            if (context.getAuthentication() == null) {
+                authenticate(authorizationHeader, request, context);
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private void authenticate(String authorizationHeader, HttpServletRequest request, SecurityContext context) {
+        // Token đã verify trước đó thì lấy thẳng từ cache, không parse lại và không truy vấn DB.
+        // Khóa cache là nguyên giá trị header nên không phải cắt chuỗi token cho mỗi request
+        JwtAuthenticationCache.CachedAuthentication cached = jwtAuthenticationCache.get(authorizationHeader);
+        if (cached == null) {
+            cached = authenticate(authorizationHeader);
+        }
+
+        // Kiểm tra thu hồi trên bộ nhớ, áp dụng cả khi token đã nằm trong cache
+        if (cached != null && revocationCheckEnabled && tokenRevocationRegistry.isRevoked(cached.getClaims())) {
+            log.info("Token has been revoked for user: {}", cached.getClaims().getSubject());
+            cached = null;
+        }
+
+        if (cached != null) {
+            UserDetails userDetails = cached.getUserDetails();
+            UsernamePasswordAuthenticationToken authentication =
+                    UsernamePasswordAuthenticationToken.authenticated(userDetails, null, userDetails.getAuthorities());
+            authentication.setDetails(authenticationDetailsSource.buildDetails(request));
 
-        // Kiểm tra header Authorization
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
+            // Gắn vào context hiện tại của request (session STATELESS nên context không dùng chung giữa các request)
+            context.setAuthentication(authentication);
+        }
+    }
+
+    private JwtAuthenticationCache.CachedAuthentication authenticate(String authorizationHeader) {
+        Claims claims;
+        try {
+            // Parse và verify chữ ký đúng một lần
+            claims = jwtUtil.parseToken(authorizationHeader.substring(BEARER_PREFIX.length()));
+        } catch (Exception e) {
+            log.warn("Error extracting username from token: {}", e.getMessage());
+            return null;
+        }
+
+        String email = claims.getSubject();
+        if (email == null) {
+            return null;
+        }
+        // Cả hai chế độ đều cho ra JwtUserPrincipal mang userId. Chế độ không stateless xác nhận user vẫn tồn tại trong DB,
+        // nhưng chỉ khi token chưa có trong cache: user bị xóa vẫn dùng được token tới khi entry hết hạn (jwt.cache.ttl)
+        UserDetails userDetails;
+        if (stateless) {
+            userDetails = new JwtUserPrincipal(jwtUtil.extractUserId(claims), email);
+        } else {
             try {
-                email = jwtUtil.extractUsername(jwt);
-            } catch (Exception e) {
-                System.out.println("Error extracting username from token: " + e.getMessage());
+                userDetails = this.userDetailsService.loadUserByUsername(email);
+            } catch (UsernameNotFoundException e) {
+                log.info("Token belongs to a user that no longer exists: {}", email);
+                return null;
             }
         }
 
-        // Nếu email không rỗng và chưa có thông tin xác thực trong SecurityContext
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(email);
-
-            // Xác thực token
-            if (jwtUtil.validateToken(jwt, userDetails.getUsername())) {
-                UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken =
-                        new UsernamePasswordAuthenticationToken(
-                                userDetails, null, userDetails.getAuthorities());
-                usernamePasswordAuthenticationToken
-                        .setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                
-                // Thiết lập thông tin xác thực vào SecurityContext
-                SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
-                
-                System.out.println("Authentication successful for user: " + email);
-            }
+        // Xác thực token
+        if (!jwtUtil.validateToken(claims, userDetails.getUsername())) {
+            return null;
         }
-        chain.doFilter(request, response);
+        log.debug(LogMarkers.SAMPLED, "Authentication successful for user: {}", email);
+        return jwtAuthenticationCache.put(authorizationHeader, claims, userDetails);
     }
 } 
\ No newline at end of file
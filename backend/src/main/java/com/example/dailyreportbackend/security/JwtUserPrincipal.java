@@ -0,0 +1,54 @@
+package com.example.dailyreportbackend.security;
+
+import lombok.Getter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Collections;
+
+// Principal gọn nhẹ mang userId cho mọi request đã xác thực; controller lấy userId qua @AuthenticationPrincipal.
+// Dựng từ claims (jwt.stateless=true) hoặc từ bảng user (UserDetailsServiceImpl, có kèm password đã mã hóa)
+@Getter
+public class JwtUserPrincipal implements UserDetails {
+
+    private final Long userId;
+    private final String email;
+    private final String password;
+
+    public JwtUserPrincipal(Long userId, String email) {
+        this(userId, email, null);
+    }
+
+    public JwtUserPrincipal(Long userId, String email, String password) {
+        this.userId = userId;
+        this.email = email;
+        this.password = password;
+    }
+
+    // userId của request hiện tại, null khi chưa đăng nhập
+    public static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof JwtUserPrincipal principal) {
+            return principal.getUserId();
+        }
+        return null;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+}
@@ -3,12 +3,18 @@ package com.example.dailyreportbackend.security;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
@@ -20,6 +26,28 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    // Null khi JwtUtil được tạo ngoài Spring context (test, benchmark)
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    private Timer parseSuccessTimer;
+    private Timer parseFailureTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        MeterRegistry registry = meterRegistry != null ? meterRegistry.getIfAvailable() : null;
+        if (registry != null) {
+            parseSuccessTimer = parseTimer("success").register(registry);
+            parseFailureTimer = parseTimer("failure").register(registry);
+        }
+    }
+
+    private Timer.Builder parseTimer(String outcome) {
+        return Timer.builder("jwt.parse")
+                .description("Thời gian parse và verify chữ ký JWT")
+                .tag("outcome", outcome);
+    }
+
     public String generateToken(String email, Long userId) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
@@ -27,22 +55,25 @@ public class JwtUtil {
     }
 
     private String createToken(Map<String, Object> claims, String subject) {
+        long nowMillis = System.currentTimeMillis();
+        // iat chuẩn chỉ giữ phần giây, TokenRevocationRegistry cần thời điểm cấp theo mili giây
+        claims.put(TokenRevocationRegistry.ISSUED_AT_MILLIS_CLAIM, nowMillis);
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
+                .setIssuedAt(new Date(nowMillis))
+                .setExpiration(new Date(nowMillis + expiration))
                 .signWith(SignatureAlgorithm.HS256, secret)
                 .compact();
     }
 
     public Boolean validateToken(String token, String email) {
-        final String username = extractUsername(token);
-        return (username.equals(email) && !isTokenExpired(token));
+        return validateToken(parseToken(token), email);
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    // Kiểm tra trên claims đã parse sẵn, tránh parse và verify chữ ký thêm lần nữa
+    public Boolean validateToken(Claims claims, String email) {
+        return (claims.getSubject().equals(email) && !claims.getExpiration().before(new Date()));
     }
 
     public String extractUsername(String token) {
@@ -50,12 +81,11 @@ public class JwtUtil {
     }
 
     public Long extractUserId(String token) {
-        Claims claims = extractAllClaims(token);
-        return claims.get("userId", Long.class);
+        return extractUserId(extractAllClaims(token));
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public Long extractUserId(Claims claims) {
+        return claims.get("userId", Long.class);
     }
 
     private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -63,7 +93,23 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
+    // Parse và verify chữ ký một lần duy nhất
+    public Claims parseToken(String token) {
+        return extractAllClaims(token);
+    }
+
     private Claims extractAllClaims(String token) {
-        return Jwts.parser().setSigningKey(secret).parseClaimsJws(token).getBody();
+        if (parseSuccessTimer == null) {
+            return Jwts.parser().setSigningKey(secret).parseClaimsJws(token).getBody();
+        }
+        long start = System.nanoTime();
+        try {
+            Claims claims = Jwts.parser().setSigningKey(secret).parseClaimsJws(token).getBody();
+            parseSuccessTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return claims;
+        } catch (RuntimeException e) {
+            parseFailureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
     }
 } 
\ No newline at end of file
@@ -0,0 +1,88 @@
+package com.example.dailyreportbackend.security;
+
+import com.example.dailyreportbackend.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Chạy BCrypt trên một pool riêng có giới hạn để đợt đăng nhập dồn dập không chiếm hết CPU của request đọc báo cáo.
+// Hàng đợi đầy thì từ chối ngay (429) thay vì để request chờ.
+@Slf4j
+@Component
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final ExecutorService monitoredExecutor;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  @Value("${auth.hashing.threads:0}") int configuredThreads,
+                                  @Value("${auth.hashing.queue-capacity:64}") int queueCapacity,
+                                  ObjectProvider<MeterRegistry> meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        // Mặc định dùng một nửa số CPU, phần còn lại dành cho các request khác
+        int threads = configuredThreads > 0
+                ? configuredThreads
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        // BCrypt thuần CPU nên dùng luồng nền tảng, không dùng virtual thread
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new HashingThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        this.monitoredExecutor = registry != null
+                ? ExecutorServiceMetrics.monitor(registry, executor, "password.hashing")
+                : executor;
+        log.info("Password hashing executor: {} threads, queue capacity {}", threads, queueCapacity);
+    }
+
+    public CompletableFuture<String> encode(CharSequence rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public CompletableFuture<Boolean> matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    // true khi hash được tạo với strength thấp hơn cấu hình hiện tại
+    public boolean needsUpgrade(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, monitoredExecutor);
+        } catch (RejectedExecutionException e) {
+            throw new TooManyRequestsException("Hệ thống đang bận xử lý đăng nhập, vui lòng thử lại sau", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static class HashingThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.dailyreportbackend.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Thu hồi token theo user: mọi token cấp không sau mốc thu hồi đều bị từ chối (lưu trong bộ nhớ).
+// So sánh theo claim iatMs (mili giây) để token đăng nhập ngay sau khi đổi mật khẩu, cùng giây, vẫn dùng được.
+// Token cấp trước khi có claim này chỉ có iat theo giây: token cùng giây với mốc thu hồi bị từ chối cho chắc
+@Component
+public class TokenRevocationRegistry {
+
+    public static final String ISSUED_AT_MILLIS_CLAIM = "iatMs";
+
+    private final Map<Long, Long> revokedAtMillis = new ConcurrentHashMap<>();
+
+    @Value("${jwt.expiration}")
+    private Long expiration;
+
+    public void revokeAll(Long userId) {
+        long nowMillis = System.currentTimeMillis();
+        revokedAtMillis.put(userId, nowMillis);
+
+        // Mốc thu hồi cũ hơn thời hạn token thì không còn token nào bị ảnh hưởng
+        long oldestRelevant = nowMillis - expiration;
+        revokedAtMillis.values().removeIf(revokedAt -> revokedAt < oldestRelevant);
+    }
+
+    public boolean isRevoked(Claims claims) {
+        Long userId = claims.get("userId", Long.class);
+        if (userId == null || claims.getIssuedAt() == null) {
+            return false;
+        }
+        Long revokedAt = revokedAtMillis.get(userId);
+        if (revokedAt == null) {
+            return false;
+        }
+        Long issuedAtMillis = claims.get(ISSUED_AT_MILLIS_CLAIM, Long.class);
+        if (issuedAtMillis != null) {
+            return issuedAtMillis <= revokedAt;
+        }
+        return claims.getIssuedAt().getTime() / 1000 <= revokedAt / 1000;
+    }
+}
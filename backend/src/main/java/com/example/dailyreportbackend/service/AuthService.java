@@ -5,10 +5,12 @@ import com.example.dailyreportbackend.dto.LoginRequest;
 import com.example.dailyreportbackend.model.User;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public interface AuthService {
-    AuthResponse register(LoginRequest request);
-    AuthResponse login(LoginRequest request);
+    // Băm mật khẩu chạy trên PasswordHashingService, kết quả hoàn thành bất đồng bộ
+    CompletableFuture<AuthResponse> register(LoginRequest request);
+    CompletableFuture<AuthResponse> login(LoginRequest request);
     Map<String, String> forgotPassword(String email);
-    Map<String, String> resetPassword(String token, String newPassword);
+    CompletableFuture<Map<String, String>> resetPassword(String token, String newPassword);
 } 
\ No newline at end of file
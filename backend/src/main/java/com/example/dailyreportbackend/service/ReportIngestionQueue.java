@@ -0,0 +1,436 @@
+package com.example.dailyreportbackend.service;
+
+import com.example.dailyreportbackend.dto.ReportBatchResult;
+import com.example.dailyreportbackend.dto.ReportIngestionStatus;
+import com.example.dailyreportbackend.exception.TooManyRequestsException;
+import com.example.dailyreportbackend.model.Report;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Chế độ ghi trễ cho POST /api/reports: request chỉ ghi báo cáo vào journal trên đĩa rồi đưa vào hàng đợi có giới hạn,
+// một luồng ghi gom nhiều báo cáo thành một transaction (createReports) để giờ cao điểm không tranh nhau kết nối DB.
+// Journal là file NDJSON: mỗi báo cáo một dòng, sau mỗi lần commit ghi thêm một dòng "done" chứa các ticket đã lưu.
+// Khi khởi động, các ticket chưa có trong dòng "done" được ghi lại. Nếu tắt đột ngột giữa lúc commit DB và ghi "done",
+// báo cáo đó sẽ được ghi lại lần nữa (at-least-once). Journal phải nằm trên đĩa bền (report.ingestion.journal-dir),
+// không có giá trị mặc định để tránh vô tình dùng thư mục tạm bị xóa khi khởi động lại máy.
+@Slf4j
+@Component
+public class ReportIngestionQueue {
+
+    private static final String JOURNAL_FILE = "report-ingestion.journal";
+    private static final long MAX_RETRY_BACKOFF_MILLIS = 30_000;
+
+    private final ReportService reportService;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long lingerMillis;
+    private final boolean fsync;
+    private final Path journalPath;
+
+    private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+    private final Semaphore capacity;
+    private final Cache<String, TicketStatus> statuses;
+    private final ReentrantLock journalLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final List<Entry> recovered = new ArrayList<>();
+    private final Timer batchTimer;
+
+    private FileChannel journal;
+    private int pendingInJournal;
+    private long appendedSequence;
+    private long syncedSequence;
+    private Thread writer;
+    private volatile boolean running;
+
+    public ReportIngestionQueue(ReportService reportService,
+                                ObjectMapper objectMapper,
+                                @Value("${report.ingestion.queued:false}") boolean enabled,
+                                @Value("${report.ingestion.queue-capacity:10000}") int queueCapacity,
+                                @Value("${report.ingestion.batch-size:200}") int batchSize,
+                                @Value("${report.ingestion.linger-ms:20}") long lingerMillis,
+                                @Value("${report.ingestion.fsync:true}") boolean fsync,
+                                @Value("${report.ingestion.journal-dir:}") String journalDir,
+                                @Value("${report.ingestion.status-ttl:PT1H}") Duration statusTtl,
+                                ObjectProvider<MeterRegistry> meterRegistry) {
+        this.reportService = reportService;
+        this.objectMapper = objectMapper.copy().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.lingerMillis = lingerMillis;
+        this.fsync = fsync;
+        if (enabled && journalDir.isBlank()) {
+            throw new IllegalStateException("report.ingestion.journal-dir phải trỏ tới thư mục bền khi bật report.ingestion.queued");
+        }
+        this.journalPath = journalDir.isBlank() ? null : Paths.get(journalDir, JOURNAL_FILE);
+        this.capacity = new Semaphore(queueCapacity);
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(Math.max(queueCapacity, 1) * 10L)
+                .expireAfterWrite(statusTtl)
+                .build();
+
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null && enabled) {
+            Gauge.builder("report.ingestion.queue.size", queue, BlockingQueue::size)
+                    .description("Số báo cáo đang chờ luồng ghi")
+                    .register(registry);
+            this.batchTimer = Timer.builder("report.ingestion.batch")
+                    .description("Thời gian ghi một nhóm báo cáo vào DB")
+                    .register(registry);
+        } else {
+            this.batchTimer = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(journalPath.getParent());
+        recover();
+        journal = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        log.info("Report ingestion queue enabled: capacity {}, batch size {}, journal {}",
+                capacity.availablePermits(), batchSize, journalPath);
+    }
+
+    // Luồng ghi chỉ chạy khi context đã khởi tạo xong; request đến sớm hơn vẫn được ghi journal và xếp hàng
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWriter() {
+        if (!enabled || writer != null) {
+            return;
+        }
+        running = true;
+        // Ghi DB là I/O chặn trong transaction dài, dùng một luồng nền tảng riêng
+        writer = new Thread(this::runWriter, "report-ingestion-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Ghi vào journal (fsync) rồi đưa vào hàng đợi; trả về ticket để tra trạng thái
+    public ReportIngestionStatus enqueue(Report report) throws IOException {
+        if (report.getUserId() == null || report.getTitle() == null || report.getTitle().isBlank()) {
+            throw new IllegalArgumentException("Thiếu userId hoặc tiêu đề");
+        }
+        if (!capacity.tryAcquire()) {
+            throw new TooManyRequestsException("Hàng đợi ghi báo cáo đã đầy, vui lòng thử lại sau");
+        }
+        Entry entry = new Entry(UUID.randomUUID().toString(), report);
+        try {
+            byte[] line = objectMapper.writeValueAsBytes(new JournalLine(entry.ticket(), report, null));
+            long sequence;
+            journalLock.lock();
+            try {
+                appendLine(line);
+                pendingInJournal++;
+                sequence = ++appendedSequence;
+            } finally {
+                journalLock.unlock();
+            }
+            syncUpTo(sequence);
+        } catch (IOException | RuntimeException e) {
+            capacity.release();
+            throw e;
+        }
+        ReportIngestionStatus status = new ReportIngestionStatus(entry.ticket(), ReportIngestionStatus.QUEUED, null, null);
+        statuses.put(entry.ticket(), new TicketStatus(report.getUserId(), status));
+        queue.add(entry);
+        return status;
+    }
+
+    // Chỉ chủ báo cáo mới xem được trạng thái; ticket của user khác được coi như không tồn tại
+    public ReportIngestionStatus getStatus(String ticket, Long userId) {
+        TicketStatus tracked = statuses.getIfPresent(ticket);
+        if (tracked == null || userId == null || !userId.equals(tracked.userId())) {
+            return null;
+        }
+        return tracked.status();
+    }
+
+    private void runWriter() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        // Báo cáo còn sót từ lần chạy trước được ghi trước
+        for (int from = 0; from < recovered.size() && running; from += batchSize) {
+            batch.addAll(recovered.subList(from, Math.min(from + batchSize, recovered.size())));
+            writeBatch(batch);
+            batch.clear();
+        }
+        recovered.clear();
+
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - batch.size());
+                // Chờ thêm một chút để gom được nhóm lớn hơn khi tải đang tăng
+                if (batch.size() < batchSize && lingerMillis > 0 && running) {
+                    Thread.sleep(lingerMillis);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+                capacity.release(batch.size());
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Report ingestion writer error: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Một transaction cho cả nhóm. Mất kết nối DB thì thử lại với backoff, báo cáo vẫn nằm trong journal.
+    // Lỗi dữ liệu (vi phạm ràng buộc...) thì thử lại sẽ không khỏi: chia đôi nhóm để tìm báo cáo lỗi,
+    // báo cáo đó bị đánh dấu REJECTED và ghi "done" để không chặn hàng đợi.
+    private void writeBatch(List<Entry> batch) {
+        List<Report> reports = batch.stream().map(Entry::report).toList();
+        long backoffMillis = 500;
+        List<ReportBatchResult> results;
+        while (true) {
+            try {
+                long start = System.nanoTime();
+                results = reportService.createReports(reports);
+                if (batchTimer != null) {
+                    batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+                break;
+            } catch (RuntimeException e) {
+                if (!isTransient(e)) {
+                    rejectOrSplit(batch, e);
+                    return;
+                }
+                log.warn("Failed to write {} queued reports, retrying in {} ms: {}", batch.size(), backoffMillis, e.getMessage());
+                if (!running) {
+                    return;
+                }
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoffMillis = Math.min(backoffMillis * 2, MAX_RETRY_BACKOFF_MILLIS);
+            }
+        }
+
+        List<String> tickets = batch.stream().map(Entry::ticket).toList();
+        markDone(tickets);
+        // Cập nhật trạng thái sau khi đã ghi "done", client thấy CREATED thì journal cũng đã biết
+        for (ReportBatchResult result : results) {
+            Entry entry = batch.get(result.getIndex());
+            statuses.put(entry.ticket(), new TicketStatus(entry.report().getUserId(),
+                    new ReportIngestionStatus(entry.ticket(), result.getStatus(), result.getId(), result.getMessage())));
+        }
+        log.debug("Wrote {} queued reports", batch.size());
+    }
+
+    private void rejectOrSplit(List<Entry> batch, RuntimeException e) {
+        if (batch.size() > 1) {
+            log.warn("Failed to write {} queued reports, splitting the batch: {}", batch.size(), e.getMessage());
+            int middle = batch.size() / 2;
+            writeBatch(new ArrayList<>(batch.subList(0, middle)));
+            writeBatch(new ArrayList<>(batch.subList(middle, batch.size())));
+            return;
+        }
+        Entry entry = batch.get(0);
+        log.error("Rejecting queued report {}: {}", entry.ticket(), e.getMessage());
+        markDone(List.of(entry.ticket()));
+        statuses.put(entry.ticket(), new TicketStatus(entry.report().getUserId(),
+                new ReportIngestionStatus(entry.ticket(), ReportIngestionStatus.REJECTED, null, "Không thể lưu báo cáo")));
+    }
+
+    // Chỉ lỗi kết nối/tạm thời mới đáng chờ rồi thử lại; các lỗi khác được coi là lỗi của chính dữ liệu
+    private static boolean isTransient(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof TransientDataAccessException
+                    || t instanceof RecoverableDataAccessException
+                    || t instanceof DataAccessResourceFailureException
+                    || t instanceof CannotCreateTransactionException
+                    || t instanceof SQLTransientException
+                    || t instanceof SQLRecoverableException
+                    || t instanceof ConnectException) {
+                return true;
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    // Ghi dòng "done"; khi không còn báo cáo nào chờ thì cắt journal về rỗng để file không lớn dần
+    private void markDone(List<String> tickets) {
+        journalLock.lock();
+        try {
+            pendingInJournal -= tickets.size();
+            if (pendingInJournal <= 0) {
+                pendingInJournal = 0;
+                journal.truncate(0);
+            } else {
+                appendLine(objectMapper.writeValueAsBytes(new JournalLine(null, null, tickets)));
+            }
+            // Một lần fsync cho cả nhóm; mất dòng "done" thì các báo cáo này bị ghi lại khi khởi động
+            if (fsync) {
+                journal.force(false);
+            }
+        } catch (IOException e) {
+            log.error("Failed to update ingestion journal {}: {}", journalPath, e.getMessage());
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    private void appendLine(byte[] line) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(line.length + 1).put(line).put((byte) '\n').flip();
+        while (buffer.hasRemaining()) {
+            journal.write(buffer);
+        }
+    }
+
+    // Gom fsync: request chờ trong lúc một lần force đang chạy sẽ được lần force kế tiếp bao luôn,
+    // thay vì mỗi request một lần fsync nối tiếp nhau
+    private void syncUpTo(long sequence) throws IOException {
+        if (!fsync) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            if (syncedSequence >= sequence) {
+                return;
+            }
+            long target;
+            journalLock.lock();
+            try {
+                target = appendedSequence;
+            } finally {
+                journalLock.unlock();
+            }
+            journal.force(false);
+            syncedSequence = target;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    // Đọc journal của lần chạy trước, giữ lại các báo cáo chưa được commit rồi ghi lại journal gọn
+    private void recover() throws IOException {
+        if (!Files.exists(journalPath)) {
+            return;
+        }
+        Map<String, Report> pending = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(journalPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    JournalLine entry = objectMapper.readValue(line, JournalLine.class);
+                    if (entry.done() != null) {
+                        entry.done().forEach(pending::remove);
+                    } else if (entry.ticket() != null && entry.report() != null) {
+                        pending.put(entry.ticket(), entry.report());
+                    }
+                } catch (IOException e) {
+                    // Dòng cuối có thể bị ghi dở khi tắt đột ngột
+                    log.warn("Skipping unreadable ingestion journal line: {}", e.getMessage());
+                }
+            }
+        }
+
+        Path compacted = journalPath.resolveSibling(JOURNAL_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Map.Entry<String, Report> entry : pending.entrySet()) {
+                byte[] line = objectMapper.writeValueAsBytes(new JournalLine(entry.getKey(), entry.getValue(), null));
+                channel.write(ByteBuffer.allocate(line.length + 1).put(line).put((byte) '\n').flip());
+                recovered.add(new Entry(entry.getKey(), entry.getValue()));
+                statuses.put(entry.getKey(), new TicketStatus(entry.getValue().getUserId(),
+                        new ReportIngestionStatus(entry.getKey(), ReportIngestionStatus.QUEUED, null, null)));
+            }
+            channel.force(true);
+        }
+        Files.move(compacted, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        pendingInJournal = pending.size();
+        if (!pending.isEmpty()) {
+            log.info("Recovered {} queued reports from ingestion journal", pending.size());
+        }
+    }
+
+    // Dừng nhận, chờ luồng ghi xử lý nốt hàng đợi; phần chưa kịp ghi vẫn còn trong journal
+    @PreDestroy
+    public void shutdown() throws InterruptedException, IOException {
+        if (!enabled) {
+            return;
+        }
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        if (writer != null && writer.isAlive()) {
+            log.warn("Report ingestion writer did not finish, {} reports left in journal", queue.size());
+        }
+        journal.close();
+    }
+
+    private record Entry(String ticket, Report report) {
+    }
+
+    // Trạng thái kèm userId chủ báo cáo, userId không trả ra cho client
+    private record TicketStatus(Long userId, ReportIngestionStatus status) {
+    }
+
+    // Một dòng journal: hoặc (ticket, report), hoặc danh sách ticket đã commit
+    private record JournalLine(String ticket, Report report, List<String> done) {
+    }
+}
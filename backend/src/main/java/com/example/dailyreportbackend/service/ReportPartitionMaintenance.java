@@ -0,0 +1,85 @@
+package com.example.dailyreportbackend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+// Tạo trước partition theo tháng cho bảng report (sau khi đã chạy db/partitioning/report_monthly_partitions.sql).
+// Partition cuối p_future (MAXVALUE) được tách ra thành các tháng tới months-ahead tháng sau tháng hiện tại,
+// để báo cáo mới luôn rơi vào partition của đúng tháng và truy vấn theo khoảng ngày được pruning.
+// Nhiều instance cùng chạy thì ALTER TABLE bị khóa tuần tự, instance đến sau chỉ ghi log lỗi trùng tên partition.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "report.partitioning.enabled", havingValue = "true")
+public class ReportPartitionMaintenance {
+
+    private static final String FUTURE_PARTITION = "p_future";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${report.partitioning.months-ahead:3}")
+    private int monthsAhead;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ensurePartitions();
+    }
+
+    @Scheduled(cron = "${report.partitioning.cron:0 0 3 1 * *}")
+    public void ensurePartitions() {
+        try {
+            // Với RANGE COLUMNS, PARTITION_DESCRIPTION là biên trên dạng '2025-01-01'
+            List<String> boundaries = jdbcTemplate.queryForList(
+                    "SELECT PARTITION_DESCRIPTION FROM information_schema.PARTITIONS " +
+                    "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'report' " +
+                    "AND PARTITION_NAME IS NOT NULL AND PARTITION_NAME <> ? " +
+                    "ORDER BY PARTITION_ORDINAL_POSITION", String.class, FUTURE_PARTITION);
+            if (boundaries.isEmpty()) {
+                log.warn("Table report is not partitioned, run db/partitioning/report_monthly_partitions.sql first");
+                return;
+            }
+            LocalDate lastBoundary = LocalDate.parse(boundaries.get(boundaries.size() - 1).replace("'", ""));
+            LocalDate until = LocalDate.now().withDayOfMonth(1).plusMonths(monthsAhead + 1L);
+            String statement = reorganizeStatement(lastBoundary, until);
+            if (statement == null) {
+                log.debug("Report partitions already cover dates before {}", lastBoundary);
+                return;
+            }
+            log.info("Adding report partitions from {} to {}", lastBoundary, until);
+            jdbcTemplate.execute(statement);
+        } catch (DataAccessException e) {
+            log.error("Error maintaining report partitions: {}", e.getMessage());
+        }
+    }
+
+    // Tách p_future thành các partition tháng [lastBoundary, until); null nếu đã đủ
+    private static String reorganizeStatement(LocalDate lastBoundary, LocalDate until) {
+        if (!lastBoundary.isBefore(until)) {
+            return null;
+        }
+        StringBuilder sql = new StringBuilder("ALTER TABLE report REORGANIZE PARTITION ")
+                .append(FUTURE_PARTITION).append(" INTO (");
+        LocalDate start = lastBoundary;
+        while (start.isBefore(until)) {
+            // Biên do người vận hành đặt có thể không phải ngày đầu tháng, partition đầu tiên khi đó ngắn hơn một tháng
+            LocalDate end = start.withDayOfMonth(1).plusMonths(1);
+            sql.append("PARTITION ").append(start.format(PARTITION_NAME))
+                    .append(" VALUES LESS THAN ('").append(end).append("'), ");
+            start = end;
+        }
+        return sql.append("PARTITION ").append(FUTURE_PARTITION).append(" VALUES LESS THAN (MAXVALUE))").toString();
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.dailyreportbackend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Period;
+
+// Chuyển báo cáo có ngày cũ hơn max-age sang report_archive để bảng report (danh sách, tìm kiếm, chỉ mục trong bộ nhớ)
+// không lớn dần theo thời gian. Mỗi khối chunk-size báo cáo là một transaction ngắn, nghỉ chunk-pause giữa các khối
+// để không giữ khóa lâu và không làm replica bị trễ. Nhiều instance cùng chạy thì khối trùng nhau bị lỗi khóa chính
+// ở report_archive và rollback, lần chạy sau sẽ tiếp tục.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "report.retention.enabled", havingValue = "true")
+public class ReportRetentionJob {
+
+    @Autowired
+    private ReportService reportService;
+
+    @Value("${report.retention.max-age:P2Y}")
+    private Period maxAge;
+
+    @Value("${report.retention.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${report.retention.chunk-pause:PT0.1S}")
+    private Duration chunkPause;
+
+    @Scheduled(cron = "${report.retention.cron:0 30 2 * * *}")
+    public void archiveOldReports() {
+        LocalDate cutoff = LocalDate.now().minus(maxAge);
+        long total = 0;
+        try {
+            int archived;
+            do {
+                archived = reportService.archiveReportsBefore(cutoff, chunkSize);
+                total += archived;
+                if (archived == chunkSize) {
+                    Thread.sleep(chunkPause.toMillis());
+                }
+            } while (archived == chunkSize);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (DataAccessException e) {
+            log.error("Error archiving reports before {}: {}", cutoff, e.getMessage());
+        }
+        if (total > 0) {
+            log.info("Archived {} reports dated before {}", total, cutoff);
+        }
+    }
+}
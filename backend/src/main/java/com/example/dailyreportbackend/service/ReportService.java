@@ -1,27 +1,58 @@
 package com.example.dailyreportbackend.service;
 
+import com.example.dailyreportbackend.dto.ReportBatchResult;
+import com.example.dailyreportbackend.dto.ReportCursor;
+import com.example.dailyreportbackend.dto.ReportExportFormat;
+import com.example.dailyreportbackend.dto.ReportSummary;
 import com.example.dailyreportbackend.model.Report;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface ReportService {
     Report createReport(Report report);
+    List<ReportBatchResult> createReports(List<Report> reports);
     Report getReportById(Long id);
-    List<Report> getReportsByUserId(Long userId);
-    List<Report> getReportsByUserIdAndDate(Long userId, String date);
-    List<Report> getReportsByUserIdAndTagId(Long userId, Long tagId);
+    List<ReportSummary> getReportsByUserId(Long userId);
+    List<ReportSummary> getReportsByUserIdAndDate(Long userId, LocalDate date);
+    List<ReportSummary> getReportsByUserIdAndTagId(Long userId, Long tagId);
+    // Báo cáo trong khoảng [from, to] (vd. một tuần/tháng trên lịch), tagId có thể null
+    List<ReportSummary> getReportsByUserIdAndDateRange(Long userId, LocalDate from, LocalDate to, Long tagId);
     Long countReportsByUserId(Long userId);
+    Long countReportsByUserIdAndTagId(Long userId, Long tagId);
     void deleteReport(Long id);
+    // Xóa hàng loạt báo cáo của user theo danh sách id hoặc khoảng ngày [from, to], trả về số báo cáo đã xóa
+    int deleteReports(Long userId, Collection<Long> ids);
+    int deleteReportsInRange(Long userId, LocalDate from, LocalDate to);
+    // Chuyển tối đa limit báo cáo có ngày trước cutoff sang report_archive trong một transaction, trả về số đã chuyển
+    int archiveReportsBefore(LocalDate cutoff, int limit);
     
     // Phương thức mới với phân trang
-    Page<Report> getReportsByUserIdPaged(Long userId, Pageable pageable);
-    Page<Report> getReportsByUserIdAndDatePaged(Long userId, String date, Pageable pageable);
-    Page<Report> getReportsByUserIdAndTagIdPaged(Long userId, Long tagId, Pageable pageable);
-    Page<Report> getReportsByUserIdAndDateAndTagIdPaged(Long userId, String date, Long tagId, Pageable pageable);
+    Page<ReportSummary> getReportsByUserIdPaged(Long userId, Pageable pageable);
+    Page<ReportSummary> getReportsByUserIdAndDatePaged(Long userId, LocalDate date, Pageable pageable);
+    Page<ReportSummary> getReportsByUserIdAndTagIdPaged(Long userId, Long tagId, Pageable pageable);
+    Page<ReportSummary> getReportsByUserIdAndDateAndTagIdPaged(Long userId, LocalDate date, Long tagId, Pageable pageable);
+    
+    // Phân trang keyset, cursor = null là trang đầu tiên
+    Slice<ReportSummary> getReportsByUserIdAfterCursor(Long userId, Long tagId, ReportCursor cursor, int size, boolean ascending);
+    
+    // Ghi toàn bộ báo cáo của user ra stream theo từng dòng, không nạp hết vào bộ nhớ
+    void exportReports(Long userId, ReportExportFormat format, OutputStream out) throws IOException;
+    
+    // Danh sách rút gọn dạng NDJSON, đọc theo từng trang keyset và ghi dần ra stream
+    void streamReportSummaries(Long userId, LocalDate date, Long tagId, OutputStream out) throws IOException;
     
     // Phương thức tìm kiếm
     List<Report> searchReportsByKeyword(Long userId, String keyword);
     Page<Report> searchReportsByKeywordPaged(Long userId, String keyword, Pageable pageable);
+    
+    // Lọc theo nhiều tag (matchAll: AND, ngược lại OR), khoảng ngày và từ khóa; các tham số null/rỗng được bỏ qua
+    Page<ReportSummary> filterReports(Long userId, List<Long> tagIds, boolean matchAll, LocalDate from, LocalDate to,
+                                      String keyword, Pageable pageable);
 } 
\ No newline at end of file
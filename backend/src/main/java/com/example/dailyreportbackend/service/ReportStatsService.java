@@ -0,0 +1,18 @@
+package com.example.dailyreportbackend.service;
+
+import com.example.dailyreportbackend.dto.ReportStatsResponse;
+import com.example.dailyreportbackend.dto.ReportSummary;
+import com.example.dailyreportbackend.model.Report;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+public interface ReportStatsService {
+    // Cập nhật bảng tổng hợp, phải gọi trong cùng transaction với thao tác ghi báo cáo
+    void recordCreated(Collection<Report> reports);
+    void recordDeleted(Collection<Report> reports);
+    // Cho xóa hàng loạt bằng DML: chỉ đọc bản rút gọn, không nạp entity
+    void recordSummariesDeleted(Collection<ReportSummary> reports);
+
+    ReportStatsResponse getStats(Long userId, LocalDate from, LocalDate to);
+}
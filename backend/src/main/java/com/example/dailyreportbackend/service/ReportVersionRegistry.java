@@ -0,0 +1,35 @@
+package com.example.dailyreportbackend.service;
+
+import com.example.dailyreportbackend.util.TransactionCallbacks;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bộ đếm phiên bản báo cáo theo user, dùng để dựng ETag cho các API đọc danh sách.
+// Giá trị bắt đầu từ thời điểm khởi động nên ETag cũ không còn khớp sau khi restart.
+// Lưu ý: bộ đếm nằm trong bộ nhớ của từng instance, khi chạy nhiều instance cần sticky session.
+@Component
+public class ReportVersionRegistry {
+
+    private final long epoch = System.currentTimeMillis();
+    private final ConcurrentMap<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public String version(Long userId) {
+        AtomicLong version = versions.get(userId);
+        return Long.toString(epoch, 36) + "." + (version != null ? version.get() : 0);
+    }
+
+    // Tăng sau khi transaction commit, để request đọc song song không gắn ETag mới cho dữ liệu cũ
+    public void bump(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> increment(userId));
+    }
+
+    private void increment(Long userId) {
+        versions.computeIfAbsent(userId, id -> new AtomicLong()).incrementAndGet();
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.dailyreportbackend.service;
+
+import com.example.dailyreportbackend.model.Tag;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Snapshot bất biến của danh sách tag, được thay thế nguyên khối mỗi khi có tag mới
+@Getter
+public class TagCatalog {
+
+    private final List<Tag> tags;
+    private final Map<Long, Tag> tagsById;
+    private final String etag;
+    private final long lastModified;
+
+    private TagCatalog(List<Tag> tags, Map<Long, Tag> tagsById, String etag, long lastModified) {
+        this.tags = tags;
+        this.tagsById = tagsById;
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    public static TagCatalog of(List<Tag> source) {
+        List<Tag> tags = new ArrayList<>(source.size());
+        Map<Long, Tag> tagsById = new HashMap<>();
+        int hash = 1;
+        for (Tag tag : source) {
+            // Sao chép để snapshot không dùng chung instance với persistence context
+            Tag copy = new Tag();
+            copy.setId(tag.getId());
+            copy.setName(tag.getName());
+            tags.add(copy);
+            tagsById.put(copy.getId(), copy);
+            hash = 31 * hash + Objects.hash(copy.getId(), copy.getName());
+        }
+        // ETag tính từ nội dung nên không đổi sau khi khởi động lại nếu dữ liệu không đổi
+        String etag = "\"tags-" + tags.size() + "-" + Integer.toHexString(hash) + "\"";
+        return new TagCatalog(Collections.unmodifiableList(tags), Collections.unmodifiableMap(tagsById),
+                etag, System.currentTimeMillis());
+    }
+
+    public Tag findById(Long id) {
+        return tagsById.get(id);
+    }
+}
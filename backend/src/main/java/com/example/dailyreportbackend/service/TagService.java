@@ -5,6 +5,7 @@ import com.example.dailyreportbackend.model.Tag;
 import java.util.List;
 
 public interface TagService {
+    TagCatalog getTagCatalog();
     List<Tag> getAllTags();
     Tag getTagById(Long id);
     Tag createTag(Tag tag);
@@ -2,14 +2,13 @@ package com.example.dailyreportbackend.service;
 
 import com.example.dailyreportbackend.model.User;
 import com.example.dailyreportbackend.repository.UserRepository;
+import com.example.dailyreportbackend.security.JwtUserPrincipal;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
 
@@ -23,8 +22,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
             throw new UsernameNotFoundException("User not found with email: " + email);
         }
         
-        // Trả về UserDetails với username là email, password là password đã mã hóa, và không có roles
-        return new org.springframework.security.core.userdetails.User(
-                user.getEmail(), user.getPassword(), new ArrayList<>());
+        // Trả về UserDetails với username là email, password là password đã mã hóa, không có roles, kèm userId
+        return new JwtUserPrincipal(user.getId(), user.getEmail(), user.getPassword());
     }
 } 
\ No newline at end of file
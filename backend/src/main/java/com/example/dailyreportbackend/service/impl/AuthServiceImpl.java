@@ -4,18 +4,27 @@ import com.example.dailyreportbackend.dto.AuthResponse;
 import com.example.dailyreportbackend.dto.LoginRequest;
 import com.example.dailyreportbackend.exception.JwtException;
 import com.example.dailyreportbackend.exception.ResourceNotFoundException;
+import com.example.dailyreportbackend.exception.TooManyRequestsException;
 import com.example.dailyreportbackend.model.User;
 import com.example.dailyreportbackend.repository.UserRepository;
 import com.example.dailyreportbackend.security.JwtUtil;
+import com.example.dailyreportbackend.security.PasswordHashingService;
+import com.example.dailyreportbackend.security.TokenRevocationRegistry;
 import com.example.dailyreportbackend.service.AuthService;
+import io.jsonwebtoken.Claims;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
+@Slf4j
 @Service
 public class AuthServiceImpl implements AuthService {
 
@@ -23,49 +32,89 @@ public class AuthServiceImpl implements AuthService {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+
+    // Phần sau khi băm (ghi DB, tạo token) chạy tiếp trên executor của ứng dụng (virtual thread),
+    // pool BCrypt chỉ dùng cho việc băm/so khớp để không bị chiếm bởi I/O
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor applicationTaskExecutor;
 
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @Override
-    public AuthResponse register(LoginRequest request) {
+    public CompletableFuture<AuthResponse> register(LoginRequest request) {
         // Kiểm tra email đã tồn tại chưa
         User existingUser = userRepository.findByEmail(request.getEmail());
         if (existingUser != null) {
             throw new IllegalArgumentException("Email đã tồn tại");
         }
 
-        // Tạo user mới
-        User user = new User();
-        user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
-        
-        // Lưu user vào database
-        User savedUser = userRepository.save(user);
+        return passwordHashingService.encode(request.getPassword()).thenApplyAsync(encodedPassword -> {
+            // Tạo user mới
+            User user = new User();
+            user.setEmail(request.getEmail());
+            user.setPassword(encodedPassword);
+
+            // Lưu user vào database
+            User savedUser = userRepository.save(user);
 
-        // Tạo token JWT
-        String token = jwtUtil.generateToken(savedUser.getEmail(), savedUser.getId());
+            // Tạo token JWT
+            String token = jwtUtil.generateToken(savedUser.getEmail(), savedUser.getId());
 
-        // Trả về response
-        return new AuthResponse(token, savedUser.getId(), savedUser.getEmail(), "Đăng ký thành công");
+            // Trả về response
+            return new AuthResponse(token, savedUser.getId(), savedUser.getEmail(), "Đăng ký thành công");
+        }, applicationTaskExecutor);
     }
 
     @Override
-    public AuthResponse login(LoginRequest request) {
+    public CompletableFuture<AuthResponse> login(LoginRequest request) {
         // Tìm user bằng email
         User user = userRepository.findByEmail(request.getEmail());
-        
-        // Kiểm tra user và mật khẩu
-        if (user == null || !passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (user == null) {
             throw new IllegalArgumentException("Email hoặc mật khẩu không chính xác");
         }
 
-        // Tạo token JWT
-        String token = jwtUtil.generateToken(user.getEmail(), user.getId());
+        // Kiểm tra mật khẩu
+        return passwordHashingService.matches(request.getPassword(), user.getPassword()).thenApplyAsync(matched -> {
+            if (!matched) {
+                throw new IllegalArgumentException("Email hoặc mật khẩu không chính xác");
+            }
+            upgradePasswordHashIfNeeded(user, request.getPassword());
+
+            // Tạo token JWT
+            String token = jwtUtil.generateToken(user.getEmail(), user.getId());
 
-        // Trả về response
-        return new AuthResponse(token, user.getId(), user.getEmail(), "Đăng nhập thành công");
+            // Trả về response
+            return new AuthResponse(token, user.getId(), user.getEmail(), "Đăng nhập thành công");
+        }, applicationTaskExecutor);
+    }
+
+    // Hash cũ có strength thấp hơn cấu hình: băm lại ở nền, không làm chậm response đăng nhập
+    private void upgradePasswordHashIfNeeded(User user, String rawPassword) {
+        String oldPassword = user.getPassword();
+        if (!passwordHashingService.needsUpgrade(oldPassword)) {
+            return;
+        }
+        try {
+            passwordHashingService.encode(rawPassword)
+                    .thenAcceptAsync(newPassword -> userRepository.updatePasswordIfUnchanged(user.getId(), oldPassword, newPassword),
+                            applicationTaskExecutor)
+                    .exceptionally(e -> {
+                        log.warn("Could not upgrade password hash for user {}: {}", user.getId(), e.getMessage());
+                        return null;
+                    });
+        } catch (TooManyRequestsException e) {
+            // Pool đang bận: để lần đăng nhập sau nâng cấp
+            log.debug("Skipping password hash upgrade for user {}: hashing pool is busy", user.getId());
+        }
     }
 
     @Override
@@ -80,7 +129,7 @@ public class AuthServiceImpl implements AuthService {
         String resetToken = jwtUtil.generateToken(email, user.getId());
         
         // Trong thực tế, bạn sẽ gửi email chứa token này
-        System.out.println("Reset password token for " + email + ": " + resetToken);
+        log.debug("Reset password token for {}: {}", email, resetToken);
         
         // Lưu token vào database
         user.setResetToken(resetToken);
@@ -92,10 +141,12 @@ public class AuthServiceImpl implements AuthService {
     }
 
     @Override
-    public Map<String, String> resetPassword(String token, String newPassword) {
+    public CompletableFuture<Map<String, String>> resetPassword(String token, String newPassword) {
         // Xác thực token
+        Claims claims;
         try {
-            if (!jwtUtil.validateToken(token, jwtUtil.extractUsername(token))) {
+            claims = jwtUtil.parseToken(token);
+            if (!jwtUtil.validateToken(claims, claims.getSubject())) {
                 throw new JwtException("Token không hợp lệ hoặc đã hết hạn");
             }
         } catch (Exception e) {
@@ -103,7 +154,7 @@ public class AuthServiceImpl implements AuthService {
         }
 
         // Tìm user bằng userId từ token
-        Long userId = jwtUtil.extractUserId(token);
+        Long userId = jwtUtil.extractUserId(claims);
         Optional<User> userOptional = userRepository.findById(userId);
         
         if (userOptional.isEmpty()) {
@@ -111,14 +162,20 @@ public class AuthServiceImpl implements AuthService {
         }
 
         User user = userOptional.get();
-        
-        // Cập nhật mật khẩu mới
-        user.setPassword(passwordEncoder.encode(newPassword));
-        user.setResetToken(null); // Xóa token reset
-        userRepository.save(user);
 
-        Map<String, String> response = new HashMap<>();
-        response.put("message", "Đặt lại mật khẩu thành công");
-        return response;
+        // Băm mật khẩu mới trên pool BCrypt như đăng ký/đăng nhập
+        return passwordHashingService.encode(newPassword).thenApplyAsync(encodedPassword -> {
+            user.setPassword(encodedPassword);
+            user.setResetToken(null); // Xóa token reset
+            userRepository.save(user);
+            entityManagerFactory.getCache().evict(User.class, user.getId());
+
+            // Thu hồi các token đã cấp trước khi đổi mật khẩu
+            tokenRevocationRegistry.revokeAll(user.getId());
+
+            Map<String, String> response = new HashMap<>();
+            response.put("message", "Đặt lại mật khẩu thành công");
+            return response;
+        }, applicationTaskExecutor);
     }
 } 
\ No newline at end of file
@@ -1,15 +1,58 @@
 package com.example.dailyreportbackend.service.impl;
 
+import com.example.dailyreportbackend.datasource.ReadYourWritesTracker;
+import com.example.dailyreportbackend.dto.ReportBatchResult;
+import com.example.dailyreportbackend.dto.ReportChangeEvent;
+import com.example.dailyreportbackend.dto.ReportCursor;
+import com.example.dailyreportbackend.dto.ReportExportFormat;
+import com.example.dailyreportbackend.dto.ReportSummary;
 import com.example.dailyreportbackend.exception.ResourceNotFoundException;
 import com.example.dailyreportbackend.model.Report;
+import com.example.dailyreportbackend.repository.ReportArchiveRepository;
 import com.example.dailyreportbackend.repository.ReportRepository;
+import com.example.dailyreportbackend.search.ReportSearchIndex;
+import com.example.dailyreportbackend.search.ReportTagIndex;
 import com.example.dailyreportbackend.service.ReportService;
+import com.example.dailyreportbackend.service.ReportStatsService;
+import com.example.dailyreportbackend.service.ReportVersionRegistry;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ReportServiceImpl implements ReportService {
@@ -17,70 +60,564 @@ public class ReportServiceImpl implements ReportService {
     @Autowired
     private ReportRepository reportRepository;
 
+    @Autowired
+    private ReportSearchIndex reportSearchIndex;
+
+    @Autowired
+    private ReportTagIndex reportTagIndex;
+
+    @Autowired
+    private ReportArchiveRepository reportArchiveRepository;
+
+    @Autowired
+    private ReportStatsService reportStatsService;
+
+    @Autowired
+    private ReportVersionRegistry reportVersionRegistry;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // ReportChangeStream nhận sự kiện sau khi transaction commit
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Nên bằng hibernate.jdbc.batch_size để mỗi lần flush là một batch INSERT
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchChunkSize;
+
+    // Bảng partition theo `date` (NOT NULL) thì báo cáo không có ngày không ghi được
+    @Value("${report.partitioning.enabled:false}")
+    private boolean dateRequired;
+
+    // Integer.MIN_VALUE bật chế độ streaming từng dòng của MySQL Connector/J; driver khác (H2 khi test) cần số dương
+    @Value("${report.export.fetch-size:" + Integer.MIN_VALUE + "}")
+    private int exportFetchSize;
+
+    private static final int INDEX_REBUILD_PAGE_SIZE = 500;
+    // Số dòng export giữa hai lần flush ra client
+    private static final int EXPORT_FLUSH_INTERVAL = 500;
+    // Số báo cáo mỗi trang keyset khi stream danh sách NDJSON
+    private static final int STREAM_PAGE_SIZE = 200;
+    // Khoảng ngày dài nhất cho /api/reports/range và xóa theo khoảng ngày (đủ cho lịch một năm)
+    private static final int MAX_RANGE_DAYS = 366;
+    // Số id tối đa trong một câu DELETE ... WHERE id IN
+    private static final int BULK_DML_CHUNK_SIZE = 1000;
+    private static final String CSV_HEADER = "id,date,title,tagId,progress,remainingHours,content,issue,solution";
+
+    // Dựng lại chỉ mục tìm kiếm và chỉ mục tag khi khởi động, trong lúc dựng thì tìm kiếm vẫn dùng truy vấn LIKE,
+    // còn bộ lọc tag trả lỗi tạm thời (xem filterReports). Các trang đọc ngoài transaction, song song với request ghi:
+    // thay đổi commit trong lúc đó được hai chỉ mục giữ lại và phát lại trong markReady, sau trang cuối
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildSearchIndex() {
+        reportSearchIndex.beginRebuild();
+        reportTagIndex.beginRebuild();
+        Pageable pageable = PageRequest.of(0, INDEX_REBUILD_PAGE_SIZE, Sort.by("id"));
+        Page<Report> page;
+        do {
+            page = reportRepository.findAll(pageable);
+            page.forEach(report -> {
+                reportSearchIndex.load(report);
+                reportTagIndex.load(report);
+            });
+            pageable = page.nextPageable();
+        } while (page.hasNext());
+        reportSearchIndex.markReady();
+        reportTagIndex.markReady();
+    }
+
     @Override
+    @Transactional
     public Report createReport(Report report) {
-        return reportRepository.save(report);
+        if (dateRequired && report.getDate() == null) {
+            throw new IllegalArgumentException("Thiếu ngày báo cáo");
+        }
+        Report savedReport = reportRepository.save(report);
+        reportStatsService.recordCreated(List.of(savedReport));
+        reportVersionRegistry.bump(savedReport.getUserId());
+        readYourWritesTracker.recordWrite(savedReport.getUserId());
+        reportSearchIndex.index(savedReport);
+        reportTagIndex.index(savedReport);
+        eventPublisher.publishEvent(ReportChangeEvent.created(savedReport.getUserId(), List.of(toSummary(savedReport))));
+        return savedReport;
+    }
+
+    @Override
+    @Transactional
+    public List<ReportBatchResult> createReports(List<Report> reports) {
+        List<ReportBatchResult> results = new ArrayList<>(reports.size());
+        List<Report> chunk = new ArrayList<>(batchChunkSize);
+        List<ReportBatchResult> chunkResults = new ArrayList<>(batchChunkSize);
+
+        for (int i = 0; i < reports.size(); i++) {
+            Report report = reports.get(i);
+            String error = validateForCreate(report);
+            if (error != null) {
+                results.add(new ReportBatchResult(i, null, ReportBatchResult.REJECTED, error));
+                continue;
+            }
+            // Luôn tạo mới, không cho phép ghi đè báo cáo có sẵn qua id
+            report.setId(null);
+            ReportBatchResult result = new ReportBatchResult(i, null, ReportBatchResult.CREATED, null);
+            results.add(result);
+            chunk.add(report);
+            chunkResults.add(result);
+
+            if (chunk.size() == batchChunkSize) {
+                persistChunk(chunk, chunkResults);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            persistChunk(chunk, chunkResults);
+        }
+        return results;
+    }
+
+    // Persist một khối rồi flush (một batch INSERT) và clear để persistence context không phình to
+    private void persistChunk(List<Report> chunk, List<ReportBatchResult> chunkResults) {
+        for (Report report : chunk) {
+            entityManager.persist(report);
+        }
+        entityManager.flush();
+        reportStatsService.recordCreated(chunk);
+        chunk.stream().map(Report::getUserId).distinct().forEach(userId -> {
+            reportVersionRegistry.bump(userId);
+            readYourWritesTracker.recordWrite(userId);
+        });
+        for (int i = 0; i < chunk.size(); i++) {
+            Report report = chunk.get(i);
+            chunkResults.get(i).setId(report.getId());
+            reportSearchIndex.index(report);
+            reportTagIndex.index(report);
+        }
+        chunk.stream()
+                .collect(Collectors.groupingBy(Report::getUserId, Collectors.mapping(this::toSummary, Collectors.toList())))
+                .forEach((userId, summaries) -> eventPublisher.publishEvent(ReportChangeEvent.created(userId, summaries)));
+        entityManager.clear();
+        chunk.clear();
+        chunkResults.clear();
+    }
+
+    private String validateForCreate(Report report) {
+        if (report == null) {
+            return "Báo cáo rỗng";
+        }
+        if (report.getUserId() == null) {
+            return "Thiếu userId";
+        }
+        if (report.getTitle() == null || report.getTitle().isBlank()) {
+            return "Thiếu tiêu đề";
+        }
+        if (dateRequired && report.getDate() == null) {
+            return "Thiếu ngày báo cáo";
+        }
+        return null;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Report getReportById(Long id) {
         return reportRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Report", "id", id));
     }
 
     @Override
-    public List<Report> getReportsByUserId(Long userId) {
-        return reportRepository.findByUserId(userId);
+    @Transactional(readOnly = true)
+    public List<ReportSummary> getReportsByUserId(Long userId) {
+        return reportRepository.findSummariesByUserId(userId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ReportSummary> getReportsByUserIdAndDate(Long userId, LocalDate date) {
+        return reportRepository.findSummariesByUserIdAndDate(userId, date);
     }
 
     @Override
-    public List<Report> getReportsByUserIdAndDate(Long userId, String date) {
-        return reportRepository.findByUserIdAndDate(userId, date);
+    @Transactional(readOnly = true)
+    public List<ReportSummary> getReportsByUserIdAndDateRange(Long userId, LocalDate from, LocalDate to, Long tagId) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from phải trước hoặc bằng to");
+        }
+        // Giới hạn độ dài khoảng để một request không kéo cả lịch sử báo cáo
+        if (from.plusDays(MAX_RANGE_DAYS).isBefore(to)) {
+            throw new IllegalArgumentException("Khoảng ngày tối đa là " + MAX_RANGE_DAYS + " ngày");
+        }
+        if (tagId != null) {
+            return reportRepository.findSummariesByUserIdAndTagIdAndDateBetweenOrderByDateAscIdAsc(userId, tagId, from, to);
+        }
+        return reportRepository.findSummariesByUserIdAndDateBetweenOrderByDateAscIdAsc(userId, from, to);
     }
 
     @Override
-    public List<Report> getReportsByUserIdAndTagId(Long userId, Long tagId) {
-        return reportRepository.findByUserIdAndTagId(userId, tagId);
+    @Transactional(readOnly = true)
+    public List<ReportSummary> getReportsByUserIdAndTagId(Long userId, Long tagId) {
+        return reportRepository.findSummariesByUserIdAndTagId(userId, tagId);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Long countReportsByUserId(Long userId) {
         return reportRepository.countByUserId(userId);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Long countReportsByUserIdAndTagId(Long userId, Long tagId) {
+        return reportRepository.countByUserIdAndTagId(userId, tagId);
+    }
+
+    @Override
+    @Transactional
     public void deleteReport(Long id) {
         Report report = getReportById(id);
         reportRepository.delete(report);
+        reportStatsService.recordDeleted(List.of(report));
+        reportVersionRegistry.bump(report.getUserId());
+        readYourWritesTracker.recordWrite(report.getUserId());
+        entityManager.getEntityManagerFactory().getCache().evict(Report.class, id);
+        reportSearchIndex.remove(report.getUserId(), report.getId());
+        reportTagIndex.remove(report.getUserId(), report.getId());
+        eventPublisher.publishEvent(ReportChangeEvent.deleted(report.getUserId(), List.of(report.getId())));
+    }
+
+    @Override
+    @Transactional
+    public int deleteReports(Long userId, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // Lọc theo userId khi đọc nên id của user khác bị bỏ qua
+        return deleteSummaries(reportRepository.findSummariesByUserIdAndIdIn(userId, ids));
+    }
+
+    @Override
+    @Transactional
+    public int deleteReportsInRange(Long userId, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from phải trước hoặc bằng to");
+        }
+        // Cùng giới hạn với /api/reports/range: một request không xóa (và giữ khóa trên) cả lịch sử báo cáo
+        if (from.plusDays(MAX_RANGE_DAYS).isBefore(to)) {
+            throw new IllegalArgumentException("Khoảng ngày tối đa là " + MAX_RANGE_DAYS + " ngày");
+        }
+        return deleteSummaries(reportRepository.findSummariesByUserIdAndDateBetweenOrderByDateAscIdAsc(userId, from, to));
+    }
+
+    // Xóa bằng DELETE ... WHERE id IN theo đúng các dòng vừa đọc: bảng tổng hợp được trừ theo bản rút gọn,
+    // báo cáo được thêm đồng thời sau lúc đọc không bị xóa nhầm mà không trừ thống kê
+    private int deleteSummaries(List<ReportSummary> summaries) {
+        int deleted = 0;
+        for (int from = 0; from < summaries.size(); from += BULK_DML_CHUNK_SIZE) {
+            List<ReportSummary> chunk = summaries.subList(from, Math.min(from + BULK_DML_CHUNK_SIZE, summaries.size()));
+            deleted += reportRepository.bulkDeleteByIds(chunk.stream().map(ReportSummary::getId).toList());
+        }
+        reportStatsService.recordSummariesDeleted(summaries);
+        forgetReports(summaries);
+        return deleted;
+    }
+
+    @Override
+    @Transactional
+    public int archiveReportsBefore(LocalDate cutoff, int limit) {
+        List<ReportSummary> summaries = reportRepository.findSummariesByDateBeforeOrderByDateAscIdAsc(
+                cutoff, PageRequest.of(0, limit));
+        if (summaries.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = summaries.stream().map(ReportSummary::getId).toList();
+        reportArchiveRepository.copyFromReports(ids);
+        int archived = reportRepository.bulkDeleteByIds(ids);
+        // Bảng tổng hợp giữ nguyên: thống kê theo ngày vẫn tính cả báo cáo đã lưu trữ
+        forgetReports(summaries);
+        return archived;
+    }
+
+    // Báo cáo đã rời bảng report: cập nhật phiên bản (ETag), read-your-writes, các chỉ mục trong bộ nhớ
+    // và báo cho các kết nối /api/reports/stream
+    private void forgetReports(List<ReportSummary> summaries) {
+        summaries.stream().map(ReportSummary::getUserId).distinct().forEach(userId -> {
+            reportVersionRegistry.bump(userId);
+            readYourWritesTracker.recordWrite(userId);
+        });
+        for (ReportSummary summary : summaries) {
+            reportSearchIndex.remove(summary.getUserId(), summary.getId());
+            reportTagIndex.remove(summary.getUserId(), summary.getId());
+        }
+        summaries.stream()
+                .collect(Collectors.groupingBy(ReportSummary::getUserId, Collectors.mapping(ReportSummary::getId, Collectors.toList())))
+                .forEach((userId, ids) -> eventPublisher.publishEvent(ReportChangeEvent.deleted(userId, ids)));
+    }
+
+    private ReportSummary toSummary(Report report) {
+        return new ReportSummary(report.getId(), report.getTitle(), report.getDate(), report.getTagId(), report.getTagIds(),
+                report.getUserId(), report.getProgress(), report.getRemainingHours());
     }
     
     @Override
-    public Page<Report> getReportsByUserIdPaged(Long userId, Pageable pageable) {
-        return reportRepository.findByUserId(userId, pageable);
+    @Transactional(readOnly = true)
+    public Page<ReportSummary> getReportsByUserIdPaged(Long userId, Pageable pageable) {
+        return reportRepository.findSummariesByUserId(userId, pageable);
     }
 
     @Override
-    public Page<Report> getReportsByUserIdAndDatePaged(Long userId, String date, Pageable pageable) {
-        return reportRepository.findByUserIdAndDate(userId, date, pageable);
+    @Transactional(readOnly = true)
+    public Page<ReportSummary> getReportsByUserIdAndDatePaged(Long userId, LocalDate date, Pageable pageable) {
+        return reportRepository.findSummariesByUserIdAndDate(userId, date, pageable);
     }
 
     @Override
-    public Page<Report> getReportsByUserIdAndTagIdPaged(Long userId, Long tagId, Pageable pageable) {
-        return reportRepository.findByUserIdAndTagId(userId, tagId, pageable);
+    @Transactional(readOnly = true)
+    public Page<ReportSummary> getReportsByUserIdAndTagIdPaged(Long userId, Long tagId, Pageable pageable) {
+        return reportRepository.findSummariesByUserIdAndTagId(userId, tagId, pageable);
     }
 
     @Override
-    public Page<Report> getReportsByUserIdAndDateAndTagIdPaged(Long userId, String date, Long tagId, Pageable pageable) {
-        return reportRepository.findByUserIdAndDateAndTagId(userId, date, tagId, pageable);
+    @Transactional(readOnly = true)
+    public Page<ReportSummary> getReportsByUserIdAndDateAndTagIdPaged(Long userId, LocalDate date, Long tagId, Pageable pageable) {
+        return reportRepository.findSummariesByUserIdAndDateAndTagId(userId, date, tagId, pageable);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Slice<ReportSummary> getReportsByUserIdAfterCursor(Long userId, Long tagId, ReportCursor cursor, int size, boolean ascending) {
+        // Thứ tự đã nằm trong câu truy vấn nên chỉ cần giới hạn số dòng
+        Pageable limit = PageRequest.of(0, size);
+        if (cursor != null && cursor.getDate() == null) {
+            return ascending
+                    ? reportRepository.seekAfterUndatedAsc(userId, tagId, cursor.getId(), limit)
+                    : reportRepository.seekAfterUndatedDesc(userId, tagId, cursor.getId(), limit);
+        }
+        if (tagId != null) {
+            if (cursor == null) {
+                return ascending
+                        ? reportRepository.seekFirstByTagAsc(userId, tagId, limit)
+                        : reportRepository.seekFirstByTagDesc(userId, tagId, limit);
+            }
+            return ascending
+                    ? reportRepository.seekAfterByTagAsc(userId, tagId, cursor.getDate(), cursor.getId(), limit)
+                    : reportRepository.seekAfterByTagDesc(userId, tagId, cursor.getDate(), cursor.getId(), limit);
+        }
+        if (cursor == null) {
+            return ascending
+                    ? reportRepository.seekFirstAsc(userId, limit)
+                    : reportRepository.seekFirstDesc(userId, limit);
+        }
+        return ascending
+                ? reportRepository.seekAfterAsc(userId, cursor.getDate(), cursor.getId(), limit)
+                : reportRepository.seekAfterDesc(userId, cursor.getDate(), cursor.getId(), limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportReports(Long userId, ReportExportFormat format, OutputStream out) throws IOException {
+        // Ghi qua Writer đệm, không đóng out vì stream thuộc về response
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        ObjectWriter jsonWriter = objectMapper.writerFor(Report.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        if (format == ReportExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        try (Stream<Report> reports = streamReportsForExport(userId)) {
+            int[] written = {0};
+            reports.forEach(report -> {
+                try {
+                    if (format == ReportExportFormat.CSV) {
+                        writeCsvRow(writer, report);
+                    } else {
+                        jsonWriter.writeValue(writer, report);
+                        writer.write('\n');
+                    }
+                    // Tách entity khỏi persistence context để bộ nhớ không tăng theo số dòng
+                    entityManager.detach(report);
+                    if (++written[0] % EXPORT_FLUSH_INTERVAL == 0) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    // Đọc tuần tự, read-only để Hibernate không giữ snapshot dirty-checking. Phải gọi trong transaction và đóng Stream.
+    // Không khai báo trong ReportRepository vì fetch size của @QueryHints phải là hằng số
+    private Stream<Report> streamReportsForExport(Long userId) {
+        return entityManager.createQuery("SELECT r FROM Report r WHERE r.userId = :userId ORDER BY r.date, r.id", Report.class)
+                .setParameter("userId", userId)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, exportFetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    // Mỗi trang chạy trong một transaction readOnly riêng (đi replica được), kết nối DB trả về pool trước khi ghi ra
+    // client. Client đọc chậm thì luồng dừng ở flush (TCP backpressure) mà không giữ kết nối nào
+    @Override
+    public void streamReportSummaries(Long userId, LocalDate date, Long tagId, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        ObjectWriter jsonWriter = objectMapper.writerFor(ReportSummary.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Gọi nội bộ không đi qua proxy nên @Transactional của các hàm đọc không có hiệu lực ở đây
+        TransactionTemplate readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+        if (date != null) {
+            // Giống GET /api/reports: lọc theo ngày được ưu tiên, kết quả nhỏ nên dùng lại truy vấn thường
+            writeNdjson(writer, jsonWriter, readOnlyTx.execute(status -> getReportsByUserIdAndDate(userId, date)));
+            return;
+        }
+        ReportCursor cursor = null;
+        boolean hasNext = true;
+        while (hasNext) {
+            ReportCursor after = cursor;
+            Slice<ReportSummary> page = readOnlyTx.execute(status ->
+                    getReportsByUserIdAfterCursor(userId, tagId, after, STREAM_PAGE_SIZE, false));
+            hasNext = page.hasNext();
+            for (ReportSummary summary : page) {
+                // Sắp xếp DESC nên báo cáo không có ngày nằm cuối, được ghi riêng ở dưới
+                if (summary.getDate() == null) {
+                    hasNext = false;
+                    break;
+                }
+                jsonWriter.writeValue(writer, summary);
+                writer.write('\n');
+                cursor = ReportCursor.of(summary);
+            }
+            writer.flush();
+        }
+        writeNdjson(writer, jsonWriter, readOnlyTx.execute(status -> reportRepository.findUndatedSummaries(userId, tagId)));
+    }
+
+    private void writeNdjson(Writer writer, ObjectWriter jsonWriter, List<ReportSummary> summaries) throws IOException {
+        for (ReportSummary summary : summaries) {
+            jsonWriter.writeValue(writer, summary);
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    private void writeCsvRow(Writer writer, Report report) throws IOException {
+        writer.write(String.valueOf(report.getId()));
+        writer.write(',');
+        writer.write(csvValue(report.getDate()));
+        writer.write(',');
+        writer.write(csvValue(report.getTitle()));
+        writer.write(',');
+        writer.write(csvValue(report.getTagId()));
+        writer.write(',');
+        writer.write(csvValue(report.getProgress()));
+        writer.write(',');
+        writer.write(csvValue(report.getRemainingHours()));
+        writer.write(',');
+        writer.write(csvValue(report.getContent()));
+        writer.write(',');
+        writer.write(csvValue(report.getIssue()));
+        writer.write(',');
+        writer.write(csvValue(report.getSolution()));
+        writer.write('\n');
+    }
+
+    // Theo RFC 4180: bọc trong dấu nháy kép khi có dấu phẩy, nháy kép hoặc xuống dòng
+    static String csvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<Report> searchReportsByKeyword(Long userId, String keyword) {
-        return reportRepository.searchByKeyword(userId, keyword);
+        if (!reportSearchIndex.canSearch(keyword)) {
+            return reportRepository.searchByKeyword(userId, keyword);
+        }
+        return loadInRankOrder(reportSearchIndex.search(userId, keyword));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<Report> searchReportsByKeywordPaged(Long userId, String keyword, Pageable pageable) {
-        return reportRepository.searchByKeywordPaged(userId, keyword, pageable);
+        if (!reportSearchIndex.canSearch(keyword)) {
+            return reportRepository.searchByKeywordPaged(userId, keyword, pageable);
+        }
+        List<Long> rankedIds = reportSearchIndex.search(userId, keyword);
+        int from = (int) Math.min(pageable.getOffset(), rankedIds.size());
+        int to = Math.min(from + pageable.getPageSize(), rankedIds.size());
+        return new PageImpl<>(loadInRankOrder(rankedIds.subList(from, to)), pageable, rankedIds.size());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ReportSummary> filterReports(Long userId, List<Long> tagIds, boolean matchAll, LocalDate from, LocalDate to,
+                                             String keyword, Pageable pageable) {
+        if (!reportTagIndex.isReady()) {
+            throw new IllegalStateException("Chỉ mục tag đang được dựng");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from phải trước hoặc bằng to");
+        }
+        Roaring64Bitmap matches = reportTagIndex.filter(userId, tagIds != null ? tagIds : List.of(), matchAll, from, to);
+
+        List<Long> orderedIds;
+        // Hai chỉ mục được dựng cùng lúc nên canSearch = false ở đây nghĩa là từ khóa không có term nào, bỏ qua
+        if (keyword != null && reportSearchIndex.canSearch(keyword)) {
+            // Giữ thứ tự xếp hạng của tìm kiếm, chỉ loại các báo cáo không nằm trong bitmap
+            orderedIds = new ArrayList<>();
+            for (Long reportId : reportSearchIndex.search(userId, keyword)) {
+                if (matches.contains(reportId)) {
+                    orderedIds.add(reportId);
+                }
+            }
+        } else {
+            orderedIds = reportTagIndex.newestFirst(userId, matches);
+        }
+
+        int start = (int) Math.min(pageable.getOffset(), orderedIds.size());
+        int end = Math.min(start + pageable.getPageSize(), orderedIds.size());
+        List<Long> pageIds = orderedIds.subList(start, end);
+        Map<Long, ReportSummary> summariesById = new HashMap<>();
+        for (ReportSummary summary : reportRepository.findSummariesByIdIn(pageIds)) {
+            summariesById.put(summary.getId(), summary);
+        }
+        List<ReportSummary> summaries = new ArrayList<>(pageIds.size());
+        for (Long reportId : pageIds) {
+            ReportSummary summary = summariesById.get(reportId);
+            if (summary != null) {
+                summaries.add(summary);
+            }
+        }
+        return new PageImpl<>(summaries, pageable, orderedIds.size());
+    }
+
+    // Nạp báo cáo theo danh sách id và giữ nguyên thứ tự xếp hạng từ chỉ mục
+    private List<Report> loadInRankOrder(List<Long> rankedIds) {
+        Map<Long, Report> reportsById = new HashMap<>();
+        for (Report report : reportRepository.findAllById(rankedIds)) {
+            reportsById.put(report.getId(), report);
+        }
+        List<Report> reports = new ArrayList<>(rankedIds.size());
+        for (Long id : rankedIds) {
+            Report report = reportsById.get(id);
+            if (report != null) {
+                reports.add(report);
+            }
+        }
+        return reports;
     }
 } 
\ No newline at end of file
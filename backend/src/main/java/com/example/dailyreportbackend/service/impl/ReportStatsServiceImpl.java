@@ -0,0 +1,150 @@
+package com.example.dailyreportbackend.service.impl;
+
+import com.example.dailyreportbackend.dto.ReportStatsResponse;
+import com.example.dailyreportbackend.dto.ReportSummary;
+import com.example.dailyreportbackend.model.Report;
+import com.example.dailyreportbackend.model.ReportDailyStat;
+import com.example.dailyreportbackend.repository.ReportDailyStatRepository;
+import com.example.dailyreportbackend.service.ReportStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+public class ReportStatsServiceImpl implements ReportStatsService {
+
+    @Autowired
+    private ReportDailyStatRepository reportDailyStatRepository;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(Collection<Report> reports) {
+        Map<StatKey, StatDelta> deltas = new LinkedHashMap<>();
+        for (Report report : reports) {
+            addDelta(deltas, report.getUserId(), report.getDate(), report.getTagId(),
+                    report.getProgress(), report.getRemainingHours(), 1);
+        }
+        applyDeltas(deltas, 1);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeleted(Collection<Report> reports) {
+        Map<StatKey, StatDelta> deltas = new LinkedHashMap<>();
+        for (Report report : reports) {
+            addDelta(deltas, report.getUserId(), report.getDate(), report.getTagId(),
+                    report.getProgress(), report.getRemainingHours(), -1);
+        }
+        applyDeltas(deltas, -1);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordSummariesDeleted(Collection<ReportSummary> reports) {
+        Map<StatKey, StatDelta> deltas = new LinkedHashMap<>();
+        for (ReportSummary report : reports) {
+            addDelta(deltas, report.getUserId(), report.getDate(), report.getTagId(),
+                    report.getProgress(), report.getRemainingHours(), -1);
+        }
+        applyDeltas(deltas, -1);
+    }
+
+    // Gom delta theo (user, ngày, tag) trước để mỗi nhóm chỉ tốn một câu upsert
+    private void addDelta(Map<StatKey, StatDelta> deltas, Long userId, LocalDate date, Long tagId,
+                          Integer progress, Double remainingHours, int sign) {
+        // Báo cáo không có ngày (dữ liệu cũ sai định dạng) không thuộc ngày nào nên không được tổng hợp
+        if (userId == null || date == null) {
+            return;
+        }
+        StatDelta delta = deltas.computeIfAbsent(
+                new StatKey(userId, date, tagId != null ? tagId : ReportDailyStat.NO_TAG), key -> new StatDelta());
+        delta.reportCount += sign;
+        if (progress != null) {
+            delta.progressSum += sign * progress;
+            delta.progressCount += sign;
+        }
+        if (remainingHours != null) {
+            delta.remainingHoursSum += sign * remainingHours;
+        }
+    }
+
+    private void applyDeltas(Map<StatKey, StatDelta> deltas, int sign) {
+        for (Map.Entry<StatKey, StatDelta> entry : deltas.entrySet()) {
+            StatKey key = entry.getKey();
+            StatDelta delta = entry.getValue();
+            reportDailyStatRepository.upsertDelta(key.userId(), key.date(), key.tagId(),
+                    delta.reportCount, delta.progressSum, delta.progressCount, delta.remainingHoursSum);
+            if (sign < 0) {
+                reportDailyStatRepository.deleteIfEmpty(key.userId(), key.date(), key.tagId());
+            }
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ReportStatsResponse getStats(Long userId, LocalDate from, LocalDate to) {
+        List<ReportDailyStat> rows = reportDailyStatRepository.findByUserIdAndDateBetweenOrderByDateAsc(userId, from, to);
+
+        Map<LocalDate, ReportStatsResponse.DailyStat> daily = new TreeMap<>();
+        Map<Long, StatDelta> byTag = new TreeMap<>();
+        Map<LocalDate, StatDelta> weekly = new TreeMap<>();
+        long totalReports = 0;
+
+        for (ReportDailyStat row : rows) {
+            totalReports += row.getReportCount();
+
+            ReportStatsResponse.DailyStat day = daily.computeIfAbsent(row.getDate(),
+                    date -> new ReportStatsResponse.DailyStat(date, 0, 0));
+            day.setReportCount(day.getReportCount() + row.getReportCount());
+            day.setRemainingHours(day.getRemainingHours() + row.getRemainingHoursSum());
+
+            byTag.computeIfAbsent(row.getTagId(), tagId -> new StatDelta()).add(row);
+            weekly.computeIfAbsent(row.getDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)),
+                    weekStart -> new StatDelta()).add(row);
+        }
+
+        List<ReportStatsResponse.TagStat> tagStats = new ArrayList<>(byTag.size());
+        byTag.forEach((tagId, stat) -> tagStats.add(new ReportStatsResponse.TagStat(
+                tagId == ReportDailyStat.NO_TAG ? null : tagId,
+                stat.reportCount, stat.remainingHoursSum, stat.averageProgress())));
+
+        List<ReportStatsResponse.WeeklyStat> weeklyStats = new ArrayList<>(weekly.size());
+        weekly.forEach((weekStart, stat) -> weeklyStats.add(new ReportStatsResponse.WeeklyStat(
+                weekStart, stat.reportCount, stat.averageProgress())));
+
+        return new ReportStatsResponse(userId, from, to, totalReports,
+                new ArrayList<>(daily.values()), tagStats, weeklyStats);
+    }
+
+    private record StatKey(Long userId, LocalDate date, Long tagId) {
+    }
+
+    private static class StatDelta {
+        private long reportCount;
+        private long progressSum;
+        private long progressCount;
+        private double remainingHoursSum;
+
+        void add(ReportDailyStat row) {
+            reportCount += row.getReportCount();
+            progressSum += row.getProgressSum();
+            progressCount += row.getProgressCount();
+            remainingHoursSum += row.getRemainingHoursSum();
+        }
+
+        Double averageProgress() {
+            return progressCount == 0 ? null : (double) progressSum / progressCount;
+        }
+    }
+}
@@ -3,11 +3,13 @@ package com.example.dailyreportbackend.service.impl;
 import com.example.dailyreportbackend.exception.ResourceNotFoundException;
 import com.example.dailyreportbackend.model.Tag;
 import com.example.dailyreportbackend.repository.TagRepository;
+import com.example.dailyreportbackend.service.TagCatalog;
 import com.example.dailyreportbackend.service.TagService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 public class TagServiceImpl implements TagService {
@@ -15,19 +17,50 @@ public class TagServiceImpl implements TagService {
     @Autowired
     private TagRepository tagRepository;
 
+    // Tag gần như không đổi nên đọc từ snapshot trong bộ nhớ, chỉ nạp lại khi có ghi
+    private volatile TagCatalog catalog;
+
+    // Dùng ReentrantLock thay cho synchronized để virtual thread không bị ghim carrier trong lúc truy vấn DB
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    @Override
+    public TagCatalog getTagCatalog() {
+        TagCatalog current = catalog;
+        return current != null ? current : refreshCatalog();
+    }
+
     @Override
     public List<Tag> getAllTags() {
-        return tagRepository.findAll();
+        return getTagCatalog().getTags();
     }
 
     @Override
     public Tag getTagById(Long id) {
-        return tagRepository.findById(id)
+        Tag tag = getTagCatalog().findById(id);
+        if (tag != null) {
+            return tag;
+        }
+        // Không có trong snapshot: kiểm tra DB phòng khi tag được tạo từ instance khác
+        Tag persisted = tagRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Tag", "id", id));
+        refreshCatalog();
+        return persisted;
     }
 
     @Override
     public Tag createTag(Tag tag) {
-        return tagRepository.save(tag);
+        Tag savedTag = tagRepository.save(tag);
+        refreshCatalog();
+        return savedTag;
+    }
+
+    private TagCatalog refreshCatalog() {
+        refreshLock.lock();
+        try {
+            catalog = TagCatalog.of(tagRepository.findAll());
+            return catalog;
+        } finally {
+            refreshLock.unlock();
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,25 @@
+package com.example.dailyreportbackend.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Trì hoãn cập nhật trạng thái trong bộ nhớ (chỉ mục, bộ đếm phiên bản...) tới khi transaction hiện tại commit:
+// rollback thì bỏ qua, ngoài transaction thì chạy ngay
+public final class TransactionCallbacks {
+
+    private TransactionCallbacks() {
+    }
+
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
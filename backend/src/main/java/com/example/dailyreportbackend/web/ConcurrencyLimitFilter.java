@@ -0,0 +1,113 @@
+package com.example.dailyreportbackend.web;
+
+import com.example.dailyreportbackend.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Giới hạn số request đang xử lý đồng thời theo kích thước pool kết nối DB.
+// Với virtual thread, Tomcat không còn giới hạn số luồng nên hàng nghìn request có thể cùng chờ Hikari;
+// filter này cho chờ trong thời gian ngắn rồi trả 503 thay vì để request treo tới connection-timeout.
+// Permit được trả khi dispatch đầu tiên kết thúc: phần chạy bất đồng bộ sau đó (StreamingResponseBody, SSE) không
+// bị tính. Export giữ kết nối DB trong lúc ghi nên có giới hạn riêng (ExportConcurrencyLimiter).
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final int maxInFlight;
+    private final long acquireTimeoutMillis;
+    private final ObjectMapper objectMapper;
+    private final Counter rejectedCounter;
+
+    public ConcurrencyLimitFilter(
+            @Value("${request.concurrency.max-in-flight:0}") int configuredMaxInFlight,
+            @Value("${request.concurrency.per-connection:4}") int requestsPerConnection,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${request.concurrency.acquire-timeout-ms:2000}") long acquireTimeoutMillis,
+            ObjectMapper objectMapper,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        // max-in-flight = 0: tự tính theo pool, vì đa số request chỉ giữ kết nối trong một phần thời gian xử lý
+        this.maxInFlight = configuredMaxInFlight > 0 ? configuredMaxInFlight : poolSize * requestsPerConnection;
+        this.permits = new Semaphore(maxInFlight, true);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.objectMapper = objectMapper;
+
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            Gauge.builder("http.server.requests.in-flight", permits, p -> maxInFlight - p.availablePermits())
+                    .description("Số request đang giữ permit của ConcurrencyLimitFilter")
+                    .register(registry);
+            this.rejectedCounter = Counter.builder("http.server.requests.rejected")
+                    .description("Số request bị từ chối do quá tải")
+                    .register(registry);
+        } else {
+            this.rejectedCounter = null;
+        }
+        log.info("Request concurrency limit: {} in-flight (pool size {})", maxInFlight, poolSize);
+    }
+
+    // Health check và scrape metrics không bị chặn để vẫn quan sát được khi quá tải
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            reject(request, response);
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (rejectedCounter != null) {
+            rejectedCounter.increment();
+        }
+        log.warn("Rejecting {} {}: {} requests in flight", request.getMethod(), request.getRequestURI(), maxInFlight);
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader("Retry-After", "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                new Date(),
+                "Máy chủ đang quá tải, vui lòng thử lại",
+                "uri=" + request.getRequestURI()
+        );
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
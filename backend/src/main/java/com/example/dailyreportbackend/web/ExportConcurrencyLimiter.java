@@ -0,0 +1,57 @@
+package com.example.dailyreportbackend.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+
+// Giới hạn riêng số export (/api/reports/export) chạy đồng thời. Export giữ một kết nối DB trong suốt lúc ghi ra client,
+// nhưng chạy bất đồng bộ sau khi dispatch đầu tiên trả về, tức là sau khi ConcurrencyLimitFilter đã nhả permit.
+// Permit ở đây được giữ tới khi StreamingResponseBody ghi xong.
+@Slf4j
+@Component
+public class ExportConcurrencyLimiter {
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final Counter rejectedCounter;
+
+    public ExportConcurrencyLimiter(@Value("${report.export.max-concurrent:2}") int maxConcurrent,
+                                    ObjectProvider<MeterRegistry> meterRegistry) {
+        this.maxConcurrent = maxConcurrent;
+        this.permits = new Semaphore(maxConcurrent);
+
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            Gauge.builder("report.export.in-flight", permits, p -> this.maxConcurrent - p.availablePermits())
+                    .description("Số export báo cáo đang ghi")
+                    .register(registry);
+            this.rejectedCounter = Counter.builder("report.export.rejected")
+                    .description("Số export bị từ chối do đã đủ số export đồng thời")
+                    .register(registry);
+        } else {
+            this.rejectedCounter = null;
+        }
+    }
+
+    // Không chờ: export chạy lâu nên người gọi nhận 503 ngay và thử lại sau
+    public boolean tryAcquire() {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        if (rejectedCounter != null) {
+            rejectedCounter.increment();
+        }
+        log.warn("Rejecting export: {} exports in flight", maxConcurrent);
+        return false;
+    }
+
+    public void release() {
+        permits.release();
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.dailyreportbackend.web;
+
+import com.example.dailyreportbackend.dto.ReportChangeEvent;
+import com.example.dailyreportbackend.exception.TooManyRequestsException;
+import com.example.dailyreportbackend.logging.LogMarkers;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Đẩy ReportChangeEvent tới các kết nối SSE (/api/reports/stream) của đúng user, thay cho việc client gọi lại danh sách.
+// Mỗi kết nối có hàng đợi giới hạn và một virtual thread ghi ra socket: transaction phát sự kiện chỉ offer vào hàng đợi,
+// client đọc chậm không chặn request ghi hay các client khác. Hàng đợi đầy thì kết nối bị đóng, client kết nối lại
+// và tải lại danh sách. Sự kiện chỉ tới kết nối trên cùng instance (giống ReportVersionRegistry).
+@Slf4j
+@Component
+public class ReportChangeStream {
+
+    // Các mục không phải sự kiện trong hàng đợi của kết nối
+    private static final Object CONNECTED = new Object();
+    private static final Object HEARTBEAT = new Object();
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final int bufferSize;
+    private final int maxPerUser;
+    private final long timeoutMillis;
+    private final long reconnectMillis;
+    private final Counter droppedCounter;
+
+    public ReportChangeStream(@Value("${report.stream.buffer-size:64}") int bufferSize,
+                              @Value("${report.stream.max-per-user:5}") int maxPerUser,
+                              @Value("${report.stream.timeout:PT30M}") Duration timeout,
+                              @Value("${report.stream.reconnect-delay:PT3S}") Duration reconnectDelay,
+                              ObjectProvider<MeterRegistry> meterRegistry) {
+        this.bufferSize = bufferSize;
+        this.maxPerUser = maxPerUser;
+        this.timeoutMillis = timeout.toMillis();
+        this.reconnectMillis = reconnectDelay.toMillis();
+
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            Gauge.builder("report.stream.subscribers", subscriberCount, AtomicInteger::get)
+                    .description("Số kết nối SSE đang mở")
+                    .register(registry);
+            this.droppedCounter = Counter.builder("report.stream.dropped")
+                    .description("Số kết nối SSE bị đóng vì client đọc chậm")
+                    .register(registry);
+        } else {
+            this.droppedCounter = null;
+        }
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        Subscriber subscriber = new Subscriber(userId, createEmitter(timeoutMillis), new ArrayBlockingQueue<>(bufferSize));
+        AtomicBoolean accepted = new AtomicBoolean();
+        subscribers.compute(userId, (id, current) -> {
+            Set<Subscriber> set = current != null ? current : ConcurrentHashMap.newKeySet();
+            if (set.size() < maxPerUser) {
+                set.add(subscriber);
+                accepted.set(true);
+            }
+            return set;
+        });
+        if (!accepted.get()) {
+            throw new TooManyRequestsException("Quá nhiều kết nối theo dõi báo cáo");
+        }
+        subscriberCount.incrementAndGet();
+
+        SseEmitter emitter = subscriber.emitter;
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> {
+            unsubscribe(subscriber);
+            emitter.complete();
+        });
+        emitter.onError(e -> unsubscribe(subscriber));
+        // Gửi ngay một comment để proxy/trình duyệt nhận header và biết kết nối đã sẵn sàng
+        subscriber.offer(CONNECTED);
+        return emitter;
+    }
+
+    // Test thay bằng emitter ghi lại sự kiện (không có response thật để ghi ra)
+    protected SseEmitter createEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReportChange(ReportChangeEvent event) {
+        Set<Subscriber> userSubscribers = subscribers.get(event.getUserId());
+        if (userSubscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : userSubscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    // Giữ kết nối qua proxy/load balancer hay cắt kết nối im lặng; kết nối còn sự kiện chờ gửi thì bỏ qua
+    @Scheduled(fixedDelayString = "${report.stream.heartbeat-interval:PT30S}")
+    public void sendHeartbeats() {
+        for (Set<Subscriber> userSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : userSubscribers) {
+                if (subscriber.queue.isEmpty()) {
+                    subscriber.offer(HEARTBEAT);
+                }
+            }
+        }
+    }
+
+    // Đóng các kết nối trước khi web server dừng, để graceful shutdown không phải chờ hết timeout của SSE
+    @EventListener(ContextClosedEvent.class)
+    public void onShutdown() {
+        for (Set<Subscriber> userSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : userSubscribers) {
+                subscriber.close();
+            }
+        }
+        senders.shutdown();
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscribers.computeIfPresent(subscriber.userId, (id, set) -> {
+            if (set.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private final class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Object> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscriber(Long userId, SseEmitter emitter, BlockingQueue<Object> queue) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+
+        // Không bao giờ chặn luồng gọi: hàng đợi đầy nghĩa là client không theo kịp, đóng kết nối thay vì giữ thêm sự kiện
+        private void offer(Object item) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(item)) {
+                log.debug(LogMarkers.SAMPLED, "Dropping slow report stream subscriber of user {}", userId);
+                if (droppedCounter != null) {
+                    droppedCounter.increment();
+                }
+                close();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        // Chỉ một luồng ghi cho mỗi kết nối; send() chặn khi buffer socket đầy và hàng đợi đầy dần trong lúc đó
+        private void drain() {
+            do {
+                Object item;
+                while (!closed && (item = queue.poll()) != null) {
+                    try {
+                        send(item);
+                    } catch (IOException | IllegalStateException e) {
+                        // Client đã ngắt kết nối hoặc emitter đã hoàn tất, container sẽ gọi onError/onCompletion
+                        unsubscribe(this);
+                    }
+                }
+                draining.set(false);
+            } while (!closed && !queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private void send(Object item) throws IOException {
+            if (item == CONNECTED) {
+                emitter.send(SseEmitter.event().reconnectTime(reconnectMillis).comment("connected"));
+            } else if (item == HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            } else {
+                ReportChangeEvent event = (ReportChangeEvent) item;
+                emitter.send(SseEmitter.event().name(event.getType()).data(event));
+            }
+        }
+
+        // complete() chờ cùng khóa với send() đang bị chặn, nên chạy trên luồng ghi thay vì luồng phát sự kiện
+        private void close() {
+            unsubscribe(this);
+            queue.clear();
+            senders.execute(emitter::complete);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.dailyreportbackend.web;
+
+import com.example.dailyreportbackend.security.JwtUserPrincipal;
+import com.example.dailyreportbackend.service.ReportVersionRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+// ETag yếu cho các API danh sách/tìm kiếm báo cáo, dựng từ phiên bản báo cáo của user và query string.
+// Kiểm tra If-None-Match trước khi vào controller nên khi dữ liệu không đổi thì trả 304 mà không truy vấn DB.
+@Component
+public class ReportListEtagInterceptor implements HandlerInterceptor {
+
+    @Autowired
+    private ReportVersionRegistry reportVersionRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod())) {
+            return true;
+        }
+        // Danh sách luôn là của user đăng nhập (xem ReportController.resolveUserId)
+        Long userId = JwtUserPrincipal.currentUserId();
+        if (userId == null) {
+            return true;
+        }
+        // Đọc phiên bản trước khi controller truy vấn dữ liệu: nếu có ghi xen giữa thì ETag cũ hơn dữ liệu, không ngược lại
+        String query = request.getQueryString() != null ? request.getQueryString() : "";
+        // Cùng URL nhưng JSON và NDJSON (Accept: application/x-ndjson) là hai biểu diễn khác nhau
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        int variant = accept != null ? 31 * query.hashCode() + accept.hashCode() : query.hashCode();
+        String etag = "W/\"r" + userId + "-" + reportVersionRegistry.version(userId)
+                + "-" + Integer.toHexString(variant) + "\"";
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        // checkNotModified tự gắn header ETag và đặt status 304 khi khớp
+        return !new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+}
@@ -0,0 +1,29 @@
+-- Lược đồ ban đầu (trước đây do ddl-auto=update tạo ra).
+-- Dùng IF NOT EXISTS để chạy được trên cả database mới lẫn database đã có dữ liệu.
+CREATE TABLE IF NOT EXISTS `user` (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    email VARCHAR(255),
+    password VARCHAR(255),
+    reset_token VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS tag (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS report (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    title VARCHAR(255),
+    content VARCHAR(255),
+    `date` VARCHAR(255),
+    tag_id BIGINT,
+    user_id BIGINT,
+    progress INTEGER,
+    remaining_hours FLOAT(53),
+    issue VARCHAR(255),
+    solution VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
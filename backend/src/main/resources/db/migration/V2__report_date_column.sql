@@ -0,0 +1,12 @@
+-- Chuyển report.date từ VARCHAR sang DATE và thêm index cho các truy vấn theo user.
+-- Giá trị cũ được giữ lại ở cột date_legacy; giá trị không đúng định dạng yyyy-MM-dd sẽ có date = NULL.
+ALTER TABLE report RENAME COLUMN `date` TO date_legacy;
+
+ALTER TABLE report ADD COLUMN `date` DATE NULL;
+
+UPDATE report
+SET `date` = STR_TO_DATE(date_legacy, '%Y-%m-%d')
+WHERE date_legacy REGEXP '^[0-9]{4}-[0-9]{2}-[0-9]{2}$';
+
+CREATE INDEX idx_report_user_date ON report (user_id, `date`);
+CREATE INDEX idx_report_user_tag_date ON report (user_id, tag_id, `date`);
@@ -0,0 +1,9 @@
+-- Report chuyển từ IDENTITY sang id cấp theo khối (pooled, allocationSize = 50) để INSERT được batch.
+-- MySQL không có sequence nên Hibernate dùng bảng report_seq. Giá trị khởi tạo vượt qua id lớn nhất
+-- hiện có cộng thêm một khối để không trùng id cũ.
+CREATE TABLE IF NOT EXISTS report_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+
+INSERT INTO report_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM report;
@@ -0,0 +1,26 @@
+-- Bảng tổng hợp báo cáo theo (user, ngày, tag) cho /api/reports/stats.
+-- Báo cáo không có tag được gom vào tag_id = 0; báo cáo không có ngày không được tổng hợp.
+CREATE TABLE report_daily_stat (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    `date` DATE NOT NULL,
+    tag_id BIGINT NOT NULL,
+    report_count BIGINT NOT NULL DEFAULT 0,
+    progress_sum BIGINT NOT NULL DEFAULT 0,
+    progress_count BIGINT NOT NULL DEFAULT 0,
+    remaining_hours_sum FLOAT(53) NOT NULL DEFAULT 0,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_report_daily_stat UNIQUE (user_id, `date`, tag_id)
+) ENGINE = InnoDB;
+
+INSERT INTO report_daily_stat (user_id, `date`, tag_id, report_count, progress_sum, progress_count, remaining_hours_sum)
+SELECT user_id,
+       `date`,
+       COALESCE(tag_id, 0),
+       COUNT(*),
+       COALESCE(SUM(progress), 0),
+       COUNT(progress),
+       COALESCE(SUM(remaining_hours), 0)
+FROM report
+WHERE user_id IS NOT NULL AND `date` IS NOT NULL
+GROUP BY user_id, `date`, COALESCE(tag_id, 0);
@@ -0,0 +1,3 @@
+-- email là natural id của User (cache email -> id), nên phải duy nhất.
+-- Đăng ký đã kiểm tra trùng email; nếu dữ liệu cũ còn trùng thì cần dọn tay trước khi chạy migration này.
+CREATE UNIQUE INDEX uk_user_email ON `user` (email);
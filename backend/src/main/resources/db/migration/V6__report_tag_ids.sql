@@ -0,0 +1,7 @@
+-- Báo cáo có thể gắn nhiều tag: danh sách id lưu dạng "1,5,7" ở cột tag_ids.
+-- tag_id vẫn giữ tag đầu tiên cho các index, truy vấn và bảng report_daily_stat theo một tag.
+ALTER TABLE report ADD COLUMN tag_ids VARCHAR(255) NULL;
+
+UPDATE report
+SET tag_ids = CAST(tag_id AS CHAR)
+WHERE tag_id IS NOT NULL;
@@ -0,0 +1,22 @@
+-- Báo cáo cũ hơn report.retention.max-age được chuyển sang report_archive theo từng khối (ReportRetentionJob)
+-- để bảng report chỉ giữ dữ liệu đang dùng. Bảng archive hầu như chỉ ghi nên dùng ROW_FORMAT=COMPRESSED.
+CREATE TABLE report_archive (
+    id BIGINT NOT NULL,
+    title VARCHAR(255),
+    content VARCHAR(255),
+    `date` DATE,
+    tag_id BIGINT,
+    tag_ids VARCHAR(255),
+    user_id BIGINT,
+    progress INTEGER,
+    remaining_hours FLOAT(53),
+    issue VARCHAR(255),
+    solution VARCHAR(255),
+    archived_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB ROW_FORMAT = COMPRESSED;
+
+CREATE INDEX idx_report_archive_user_date ON report_archive (user_id, `date`);
+
+-- Job chọn báo cáo theo `date` trên mọi user, index (user_id, `date`) không dùng được cho điều kiện này
+CREATE INDEX idx_report_date ON report (`date`);
@@ -0,0 +1,26 @@
+-- Partition bảng report theo tháng (RANGE COLUMNS trên `date`) để truy vấn theo khoảng ngày
+-- (/api/reports/range, /api/reports?date=) chỉ quét các partition liên quan.
+-- Không nằm trong db/migration nên Flyway không tự chạy: chạy tay một lần khi bảng đã lớn, sau đó bật
+-- REPORT_PARTITIONING_ENABLED=true để ReportPartitionMaintenance tách p_future thành các tháng tới.
+--
+-- Ràng buộc của MySQL và hệ quả:
+--   * Cột partition phải có trong mọi khóa unique nên khóa chính đổi thành (id, `date`).
+--     id vẫn duy nhất vì được cấp từ report_seq (V3__report_id_sequence.sql).
+--   * Cột trong khóa chính phải NOT NULL: báo cáo cũ có date = NULL (V2) được gán 1970-01-01,
+--     giá trị gốc vẫn nằm ở date_legacy. Khi bật partitioning, API từ chối tạo báo cáo không có ngày.
+--   * ALTER TABLE sao chép lại toàn bộ bảng, nên chạy ngoài giờ làm việc.
+--
+-- Đổi biên của p_history thành đầu tháng muốn bắt đầu tách riêng; job sẽ tạo các tháng từ biên này trở đi.
+-- Kiểm tra pruning: EXPLAIN SELECT id FROM report WHERE user_id = 1 AND `date` BETWEEN '2025-03-01' AND '2025-03-31';
+-- cột partitions chỉ nên có p202503.
+
+UPDATE report SET `date` = '1970-01-01' WHERE `date` IS NULL;
+
+ALTER TABLE report MODIFY `date` DATE NOT NULL;
+
+ALTER TABLE report DROP PRIMARY KEY, ADD PRIMARY KEY (id, `date`);
+
+ALTER TABLE report PARTITION BY RANGE COLUMNS (`date`) (
+    PARTITION p_history VALUES LESS THAN ('2025-01-01'),
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+);
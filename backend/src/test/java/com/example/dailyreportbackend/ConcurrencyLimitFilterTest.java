@@ -0,0 +1,142 @@
+package com.example.dailyreportbackend;
+
+import com.example.dailyreportbackend.web.ConcurrencyLimitFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// ConcurrencyLimitFilter với 1 permit: một request bị giữ trong chain chiếm permit, request sau phải chờ rồi nhận 503
+public class ConcurrencyLimitFilterTest {
+
+    private static final long ACQUIRE_TIMEOUT_MS = 100;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final CountDownLatch entered = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        ObjectProvider<MeterRegistry> meterRegistryProvider = mock(ObjectProvider.class);
+        when(meterRegistryProvider.getIfAvailable()).thenReturn(meterRegistry);
+        filter = new ConcurrencyLimitFilter(1, 4, 10, ACQUIRE_TIMEOUT_MS, new ObjectMapper(), meterRegistryProvider);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testRejectsWith503AfterAcquireTimeout() throws Exception {
+        // Arrange
+        Future<?> holder = holdPermit();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        long start = System.nanoTime();
+        filter.doFilter(request("/api/reports"), response, chain);
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        assertTrue(response.getContentAsString().contains("\"status\":503"));
+        assertTrue(waitedMillis >= ACQUIRE_TIMEOUT_MS, "waited " + waitedMillis + "ms");
+        assertNull(chain.getRequest(), "chain must not run for a rejected request");
+        assertEquals(1.0, meterRegistry.counter("http.server.requests.rejected").count());
+        assertEquals(1.0, meterRegistry.get("http.server.requests.in-flight").gauge().value());
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testActuatorBypassesLimit() throws Exception {
+        // Arrange
+        Future<?> holder = holdPermit();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request("/actuator/health"), response, chain);
+
+        // Assert
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertNotNull(chain.getRequest());
+        assertEquals(0.0, meterRegistry.counter("http.server.requests.rejected").count());
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testReleasesPermitWhenChainThrows() throws Exception {
+        // Arrange
+        FilterChain failingChain = (req, res) -> {
+            throw new ServletException("boom");
+        };
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        assertThrows(ServletException.class,
+                () -> filter.doFilter(request("/api/reports"), new MockHttpServletResponse(), failingChain));
+        filter.doFilter(request("/api/reports"), response, chain);
+
+        // Assert
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertNotNull(chain.getRequest());
+        assertEquals(0.0, meterRegistry.get("http.server.requests.in-flight").gauge().value());
+    }
+
+    // Chiếm permit duy nhất trên luồng khác cho tới khi test gọi release.countDown()
+    private Future<?> holdPermit() throws InterruptedException {
+        FilterChain blockingChain = (req, res) -> {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        Future<?> holder = executor.submit(() -> {
+            filter.doFilter(request("/api/reports"), new MockHttpServletResponse(), blockingChain);
+            return null;
+        });
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        return holder;
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setRequestURI(uri);
+        return request;
+    }
+}
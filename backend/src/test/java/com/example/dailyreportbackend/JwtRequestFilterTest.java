@@ -0,0 +1,97 @@
+package com.example.dailyreportbackend;
+
+import com.example.dailyreportbackend.security.JwtAuthenticationCache;
+import com.example.dailyreportbackend.security.JwtRequestFilter;
+import com.example.dailyreportbackend.security.JwtUserPrincipal;
+import com.example.dailyreportbackend.security.JwtUtil;
+import com.example.dailyreportbackend.security.TokenRevocationRegistry;
+import com.example.dailyreportbackend.service.UserDetailsServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// JwtRequestFilter ở chế độ không stateless: user bị xóa chỉ còn dùng được token tới khi entry cache hết jwt.cache.ttl
+public class JwtRequestFilterTest {
+
+    private static final Duration CACHE_TTL = Duration.ofMillis(100);
+    private static final String EMAIL = "deleted@example.com";
+
+    private final UserDetailsServiceImpl userDetailsService = mock(UserDetailsServiceImpl.class);
+    private final JwtRequestFilter filter = new JwtRequestFilter();
+    private final AtomicReference<Authentication> seen = new AtomicReference<>();
+    private final FilterChain chain = (req, res) -> seen.set(SecurityContextHolder.getContext().getAuthentication());
+    private String token;
+
+    @BeforeEach
+    public void setUp() {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "test-secret-key-test-secret-key-test-secret");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", TimeUnit.HOURS.toMillis(1));
+        TokenRevocationRegistry revocationRegistry = new TokenRevocationRegistry();
+        ReflectionTestUtils.setField(revocationRegistry, "expiration", TimeUnit.HOURS.toMillis(1));
+
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(filter, "jwtAuthenticationCache", new JwtAuthenticationCache(100, CACHE_TTL,
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class)));
+        ReflectionTestUtils.setField(filter, "tokenRevocationRegistry", revocationRegistry);
+        ReflectionTestUtils.setField(filter, "stateless", false);
+        ReflectionTestUtils.setField(filter, "revocationCheckEnabled", true);
+
+        token = jwtUtil.generateToken(EMAIL, 7L);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testDeletedUserIsRejectedOnceCacheEntryExpires() throws Exception {
+        // Arrange
+        when(userDetailsService.loadUserByUsername(EMAIL)).thenReturn(new JwtUserPrincipal(7L, EMAIL, "hash"));
+
+        // Act
+        Authentication first = send();
+        Authentication cached = send();
+        when(userDetailsService.loadUserByUsername(EMAIL)).thenThrow(new UsernameNotFoundException(EMAIL));
+        Thread.sleep(CACHE_TTL.toMillis() * 2);
+        Authentication afterTtl = send();
+
+        // Assert
+        assertNotNull(first);
+        assertNotNull(cached);
+        assertNull(afterTtl);
+        verify(userDetailsService, times(2)).loadUserByUsername(EMAIL);
+    }
+
+    private Authentication send() throws Exception {
+        SecurityContextHolder.clearContext();
+        seen.set(null);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reports");
+        request.setServletPath("/api/reports");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return seen.get();
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.dailyreportbackend;
+
+import com.example.dailyreportbackend.dto.ReportSummary;
+import com.example.dailyreportbackend.model.Report;
+import com.example.dailyreportbackend.reactive.ReactiveReportApplication;
+import com.example.dailyreportbackend.security.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+// Chạy bản WebFlux + R2DBC trên H2 (profile "h2", xem application-h2.properties); mỗi test dùng userId riêng
+@SpringBootTest(classes = ReactiveReportApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.main.web-application-type=reactive")
+@ActiveProfiles({ReactiveReportApplication.PROFILE, "h2"})
+public class ReactiveReportControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Test
+    public void testCreateThenListAndStreamNewestFirst() {
+        // Arrange
+        String token = token(101L);
+        Report older = create(token, report("Older", LocalDate.of(2024, 1, 1), 50));
+        Report newer = create(token, report("Newer", LocalDate.of(2024, 1, 2), null));
+        create(token(102L), report("Other user", LocalDate.of(2024, 1, 3), 10));
+
+        // Act
+        List<ReportSummary> listed = webTestClient.get().uri("/api/reports")
+                .header(HttpHeaders.AUTHORIZATION, token)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ReportSummary.class)
+                .returnResult().getResponseBody();
+        Flux<ReportSummary> streamed = webTestClient.get().uri("/api/reports")
+                .header(HttpHeaders.AUTHORIZATION, token)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(ReportSummary.class).getResponseBody();
+
+        // Assert
+        assertNotNull(listed);
+        assertEquals(List.of(newer.getId(), older.getId()), listed.stream().map(ReportSummary::getId).toList());
+        assertEquals(List.of("Newer", "Older"), streamed.map(ReportSummary::getTitle).collectList().block());
+        assertEquals(1L, statReportCount(101L, LocalDate.of(2024, 1, 1)));
+    }
+
+    @Test
+    public void testOnlyOwnerCanGetOrDeleteReport() {
+        // Arrange
+        String owner = token(201L);
+        String other = token(202L);
+        Report report = create(owner, report("Private", LocalDate.of(2024, 2, 1), 20));
+
+        // Act & Assert
+        webTestClient.get().uri("/api/reports/{id}", report.getId())
+                .header(HttpHeaders.AUTHORIZATION, other)
+                .exchange()
+                .expectStatus().isForbidden();
+        webTestClient.delete().uri("/api/reports/{id}", report.getId())
+                .header(HttpHeaders.AUTHORIZATION, other)
+                .exchange()
+                .expectStatus().isForbidden();
+        webTestClient.get().uri("/api/reports/{id}", report.getId())
+                .header(HttpHeaders.AUTHORIZATION, owner)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Report.class).value(body -> assertEquals("Private", body.getTitle()));
+        webTestClient.delete().uri("/api/reports/{id}", report.getId())
+                .header(HttpHeaders.AUTHORIZATION, owner)
+                .exchange()
+                .expectStatus().isOk();
+        assertEquals(0L, statReportCount(201L, LocalDate.of(2024, 2, 1)));
+    }
+
+    @Test
+    public void testSearchRequiresEveryTerm() {
+        // Arrange
+        String token = token(301L);
+        Report match = report("Fix catalog import", LocalDate.of(2024, 3, 1), null);
+        match.setIssue("Timeout on upload");
+        create(token, match);
+        create(token, report("Fix catalog export", LocalDate.of(2024, 3, 2), null));
+
+        // Act & Assert
+        webTestClient.get().uri("/api/reports/search?searchTerm={term}", "LOG upload")
+                .header(HttpHeaders.AUTHORIZATION, token)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Report.class).hasSize(1)
+                .value(reports -> assertEquals("Fix catalog import", reports.get(0).getTitle()));
+    }
+
+    @Test
+    public void testRejectsRequestWithoutToken() {
+        // Act & Assert
+        webTestClient.get().uri("/api/reports")
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    private Report create(String token, Report report) {
+        return webTestClient.post().uri("/api/reports")
+                .header(HttpHeaders.AUTHORIZATION, token)
+                .bodyValue(report)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Report.class)
+                .returnResult().getResponseBody();
+    }
+
+    private long statReportCount(Long userId, LocalDate date) {
+        Long count = databaseClient.sql("SELECT COALESCE(SUM(report_count), 0) AS total FROM report_daily_stat " +
+                        "WHERE user_id = :userId AND `date` = :date")
+                .bind("userId", userId)
+                .bind("date", date)
+                .map(row -> ((Number) row.get("total")).longValue())
+                .one()
+                .block();
+        return count != null ? count : 0L;
+    }
+
+    private String token(Long userId) {
+        return "Bearer " + jwtUtil.generateToken("user" + userId + "@example.com", userId);
+    }
+
+    private static Report report(String title, LocalDate date, Integer progress) {
+        Report report = new Report();
+        report.setTitle(title);
+        report.setDate(date);
+        report.setProgress(progress);
+        report.setTagId(1L);
+        return report;
+    }
+}
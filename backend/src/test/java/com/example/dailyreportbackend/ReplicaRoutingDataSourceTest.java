@@ -0,0 +1,105 @@
+package com.example.dailyreportbackend;
+
+import com.example.dailyreportbackend.datasource.ReadYourWritesTracker;
+import com.example.dailyreportbackend.datasource.ReplicaRoutingDataSource;
+import com.example.dailyreportbackend.security.JwtUserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ReplicaRoutingDataSourceTest {
+
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replica1Connection = mock(Connection.class);
+    private final Connection replica2Connection = mock(Connection.class);
+
+    private ReadYourWritesTracker readYourWritesTracker;
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        DataSource primary = mock(DataSource.class);
+        DataSource replica1 = mock(DataSource.class);
+        DataSource replica2 = mock(DataSource.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica1.getConnection()).thenReturn(replica1Connection);
+        when(replica2.getConnection()).thenReturn(replica2Connection);
+
+        readYourWritesTracker = new ReadYourWritesTracker(Duration.ofMinutes(1));
+        routingDataSource = new ReplicaRoutingDataSource(primary, List.of(replica1, replica2), readYourWritesTracker);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testReadOnlyTransactionOfAuthenticatedUserGoesToReplicasInTurn() throws Exception {
+        // Arrange
+        authenticate(1L);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // Act
+        Connection first = routingDataSource.getConnection();
+        Connection second = routingDataSource.getConnection();
+        Connection third = routingDataSource.getConnection();
+
+        // Assert
+        assertSame(replica1Connection, first);
+        assertSame(replica2Connection, second);
+        assertSame(replica1Connection, third);
+    }
+
+    @Test
+    public void testWritesAndAnonymousReadsGoToPrimary() throws Exception {
+        // Arrange
+        authenticate(1L);
+
+        // Act
+        Connection write = routingDataSource.getConnection();
+        SecurityContextHolder.clearContext();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        Connection anonymousRead = routingDataSource.getConnection();
+
+        // Assert
+        assertSame(primaryConnection, write);
+        assertSame(primaryConnection, anonymousRead);
+    }
+
+    @Test
+    public void testUserWhoJustWroteReadsFromPrimary() throws Exception {
+        // Arrange
+        readYourWritesTracker.recordWrite(1L);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // Act
+        authenticate(1L);
+        Connection writerRead = routingDataSource.getConnection();
+        authenticate(2L);
+        Connection otherUserRead = routingDataSource.getConnection();
+
+        // Assert
+        assertSame(primaryConnection, writerRead);
+        assertSame(replica1Connection, otherUserRead);
+    }
+
+    private void authenticate(Long userId) {
+        JwtUserPrincipal principal = new JwtUserPrincipal(userId, "user" + userId + "@example.com");
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.getAuthorities()));
+    }
+}
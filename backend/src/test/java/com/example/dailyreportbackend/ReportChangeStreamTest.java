@@ -0,0 +1,209 @@
+package com.example.dailyreportbackend;
+
+import com.example.dailyreportbackend.dto.ReportChangeEvent;
+import com.example.dailyreportbackend.exception.TooManyRequestsException;
+import com.example.dailyreportbackend.web.ReportChangeStream;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// ReportChangeStream với hàng đợi 2 mục và tối đa 2 kết nối mỗi user; emitter ghi lại những gì được gửi
+public class ReportChangeStreamTest {
+
+    private static final int BUFFER_SIZE = 2;
+    private static final int MAX_PER_USER = 2;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+    // Emitter dựng sẵn cho lần subscribe kế tiếp (ví dụ emitter chậm)
+    private final Queue<RecordingEmitter> preparedEmitters = new ConcurrentLinkedQueue<>();
+    private ReportChangeStream stream;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        ObjectProvider<MeterRegistry> meterRegistryProvider = mock(ObjectProvider.class);
+        when(meterRegistryProvider.getIfAvailable()).thenReturn(meterRegistry);
+        stream = new ReportChangeStream(BUFFER_SIZE, MAX_PER_USER, Duration.ofMinutes(1), Duration.ofSeconds(3),
+                meterRegistryProvider) {
+            @Override
+            protected SseEmitter createEmitter(long timeoutMillis) {
+                RecordingEmitter emitter = preparedEmitters.poll();
+                if (emitter == null) {
+                    emitter = new RecordingEmitter(timeoutMillis);
+                }
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    @AfterEach
+    public void tearDown() {
+        emitters.forEach(emitter -> emitter.gate.countDown());
+        stream.onShutdown();
+    }
+
+    @Test
+    public void testEventsFanOutToSubscribersOfSameUserOnly() throws Exception {
+        // Arrange
+        RecordingEmitter first = (RecordingEmitter) stream.subscribe(1L);
+        RecordingEmitter second = (RecordingEmitter) stream.subscribe(1L);
+        RecordingEmitter otherUser = (RecordingEmitter) stream.subscribe(2L);
+        otherUser.awaitSent();
+
+        // Act
+        stream.onReportChange(ReportChangeEvent.deleted(1L, List.of(10L)));
+
+        // Assert
+        assertTrue(first.awaitEvent().contains("event:deleted"));
+        assertTrue(second.awaitEvent().contains("event:deleted"));
+        assertNull(otherUser.pollEvent(200));
+        assertEquals(3.0, subscriberGauge());
+    }
+
+    @Test
+    public void testRejectsSubscribersAboveLimitPerUser() {
+        // Arrange
+        RecordingEmitter first = (RecordingEmitter) stream.subscribe(1L);
+        stream.subscribe(1L);
+
+        // Act
+        assertThrows(TooManyRequestsException.class, () -> stream.subscribe(1L));
+        SseEmitter otherUser = stream.subscribe(2L);
+        first.complete();
+        SseEmitter afterCompletion = stream.subscribe(1L);
+
+        // Assert
+        assertNotNull(otherUser);
+        assertNotNull(afterCompletion);
+        assertEquals(3.0, subscriberGauge());
+    }
+
+    @Test
+    public void testDropsSlowSubscriberWhenQueueIsFull() throws Exception {
+        // Arrange: luồng ghi của kết nối chậm bị chặn ngay ở comment "connected"
+        RecordingEmitter slow = new RecordingEmitter(60_000);
+        slow.gate = new CountDownLatch(1);
+        preparedEmitters.add(slow);
+        stream.subscribe(1L);
+        RecordingEmitter fast = (RecordingEmitter) stream.subscribe(1L);
+        assertTrue(slow.sending.await(5, TimeUnit.SECONDS));
+
+        // Act
+        for (int i = 0; i <= BUFFER_SIZE; i++) {
+            stream.onReportChange(ReportChangeEvent.deleted(1L, List.of((long) i)));
+            assertNotNull(fast.awaitEvent());
+        }
+
+        // Assert
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(1.0, meterRegistry.counter("report.stream.dropped").count());
+        assertEquals(1.0, subscriberGauge());
+        assertFalse(fast.completed.await(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testCompletionUnsubscribes() throws Exception {
+        // Arrange
+        RecordingEmitter emitter = (RecordingEmitter) stream.subscribe(1L);
+        emitter.awaitSent();
+
+        // Act
+        emitter.complete();
+        stream.onReportChange(ReportChangeEvent.deleted(1L, List.of(10L)));
+
+        // Assert
+        assertNull(emitter.pollEvent(200));
+        assertEquals(0.0, subscriberGauge());
+    }
+
+    private double subscriberGauge() {
+        return meterRegistry.get("report.stream.subscribers").gauge().value();
+    }
+
+    // Không có response thật: send() ghi lại nội dung (có thể bị chặn bởi gate), complete() chạy callback như container
+    private static final class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private volatile CountDownLatch gate = new CountDownLatch(0);
+        private volatile Runnable completionCallback;
+
+        private RecordingEmitter(long timeoutMillis) {
+            super(timeoutMillis);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sending.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            sent.add(builder.build().stream()
+                    .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                    .map(String::valueOf)
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public void onCompletion(Runnable callback) {
+            this.completionCallback = callback;
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+            if (completionCallback != null) {
+                completionCallback.run();
+            }
+        }
+
+        private String awaitSent() throws InterruptedException {
+            return sent.poll(5, TimeUnit.SECONDS);
+        }
+
+        // Bỏ qua comment (connected, heartbeat), trả về sự kiện đầu tiên hoặc null khi hết thời gian chờ
+        private String pollEvent(long timeoutMillis) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            String item;
+            while ((item = sent.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) != null) {
+                if (item.contains("event:")) {
+                    return item;
+                }
+            }
+            return null;
+        }
+
+        private String awaitEvent() throws InterruptedException {
+            return pollEvent(5000);
+        }
+    }
+}
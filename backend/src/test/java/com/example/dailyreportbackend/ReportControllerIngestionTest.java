@@ -0,0 +1,73 @@
+package com.example.dailyreportbackend;
+
+import com.example.dailyreportbackend.controller.ReportController;
+import com.example.dailyreportbackend.dto.ReportIngestionStatus;
+import com.example.dailyreportbackend.model.Report;
+import com.example.dailyreportbackend.security.JwtUserPrincipal;
+import com.example.dailyreportbackend.service.ReportIngestionQueue;
+import com.example.dailyreportbackend.service.ReportService;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+// GET /api/reports/ingest/{ticket} qua ReportController với hàng đợi ghi thật (luồng ghi không chạy, ticket ở QUEUED)
+public class ReportControllerIngestionTest {
+
+    @TempDir
+    private Path journalDir;
+
+    private ReportIngestionQueue queue;
+    private final ReportController reportController = new ReportController();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        queue = new ReportIngestionQueue(mock(ReportService.class), JsonMapper.builder().findAndAddModules().build(),
+                true, 10, 10, 0, false, journalDir.toString(), Duration.ofHours(1), mock(ObjectProvider.class));
+        queue.start();
+        ReflectionTestUtils.setField(reportController, "reportIngestionQueue", queue);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        queue.shutdown();
+    }
+
+    @Test
+    public void testOnlyOwnerCanReadIngestionStatus() {
+        // Arrange
+        JwtUserPrincipal owner = new JwtUserPrincipal(1L, "owner@example.com");
+        JwtUserPrincipal other = new JwtUserPrincipal(2L, "other@example.com");
+        Report report = new Report();
+        report.setTitle("Queued report");
+        ResponseEntity<Report> accepted = reportController.createReport(owner, report);
+        String ticket = accepted.getHeaders().getFirst("X-Report-Ticket");
+
+        // Act
+        ResponseEntity<ReportIngestionStatus> ownerResponse = reportController.getIngestionStatus(owner, ticket);
+        ResponseEntity<ReportIngestionStatus> otherResponse = reportController.getIngestionStatus(other, ticket);
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, accepted.getStatusCode());
+        assertNotNull(ticket);
+        assertEquals(HttpStatus.OK, ownerResponse.getStatusCode());
+        assertEquals(ReportIngestionStatus.QUEUED, ownerResponse.getBody().getStatus());
+        assertEquals(HttpStatus.NOT_FOUND, otherResponse.getStatusCode());
+        assertNull(otherResponse.getBody());
+    }
+}
@@ -1,8 +1,10 @@
 package com.example.dailyreportbackend;
 
 import com.example.dailyreportbackend.controller.ReportController;
+import com.example.dailyreportbackend.dto.ReportSummary;
 import com.example.dailyreportbackend.model.Report;
 import com.example.dailyreportbackend.repository.ReportRepository;
+import com.example.dailyreportbackend.security.JwtUserPrincipal;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -10,6 +12,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
 
@@ -27,13 +30,15 @@ public class ReportControllerTest {
     @InjectMocks
     private ReportController reportController;
 
+    private final JwtUserPrincipal principal = new JwtUserPrincipal(1L, "test@example.com");
+
     @Test
     public void testCreateReport() {
         // Arrange
         Report report = new Report();
         report.setTitle("Test Report");
         report.setContent("Test Content");
-        report.setDate("2023-01-01");
+        report.setDate(LocalDate.of(2023, 1, 1));
         report.setTagId(1L);
         report.setUserId(1L);
         report.setProgress(75);
@@ -44,7 +49,7 @@ public class ReportControllerTest {
         when(reportRepository.save(any(Report.class))).thenReturn(report);
 
         // Act
-        ResponseEntity<Report> response = reportController.createReport(report);
+        ResponseEntity<Report> response = reportController.createReport(principal, report);
 
         // Assert
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
@@ -58,25 +63,18 @@ public class ReportControllerTest {
     @Test
     public void testGetReports() {
         // Arrange
-        Report report1 = new Report();
-        report1.setId(1L);
-        report1.setTitle("Report 1");
-        report1.setUserId(1L);
-
-        Report report2 = new Report();
-        report2.setId(2L);
-        report2.setTitle("Report 2");
-        report2.setUserId(1L);
+        ReportSummary report1 = new ReportSummary(1L, "Report 1", null, null, null, 1L, null, null);
+        ReportSummary report2 = new ReportSummary(2L, "Report 2", null, null, null, 1L, null, null);
 
-        List<Report> reports = Arrays.asList(report1, report2);
-        when(reportRepository.findByUserId(1L)).thenReturn(reports);
+        List<ReportSummary> reports = Arrays.asList(report1, report2);
+        when(reportRepository.findSummariesByUserId(1L)).thenReturn(reports);
 
         // Act
-        ResponseEntity<List<Report>> response = reportController.getReports(1L, null, null);
+        ResponseEntity<List<ReportSummary>> response = reportController.getReports(principal, 1L, null, null);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(2, response.getBody().size());
-        verify(reportRepository, times(1)).findByUserId(1L);
+        verify(reportRepository, times(1)).findSummariesByUserId(1L);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,132 @@
+package com.example.dailyreportbackend;
+
+import com.example.dailyreportbackend.model.Report;
+import com.example.dailyreportbackend.repository.ReportRepository;
+import com.example.dailyreportbackend.security.JwtUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Phân trang cursor khi user có nhiều báo cáo không có ngày (date = NULL) hơn kích thước trang:
+// đi hết các trang theo cả hai chiều, không được bỏ sót hay lặp báo cáo nào
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2-jpa")
+public class ReportCursorPagingTest {
+
+    private static final Long USER_ID = 501L;
+    private static final int PAGE_SIZE = 2;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReportRepository reportRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<Report> undated = new ArrayList<>();
+    private final List<Report> dated = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        reportRepository.deleteAll(reportRepository.findAll().stream()
+                .filter(report -> USER_ID.equals(report.getUserId()))
+                .toList());
+        undated.clear();
+        dated.clear();
+        for (int i = 0; i < 5; i++) {
+            undated.add(reportRepository.save(report("Undated " + i, null)));
+        }
+        dated.add(reportRepository.save(report("Dated 1", LocalDate.of(2024, 1, 2))));
+        dated.add(reportRepository.save(report("Dated 2", LocalDate.of(2024, 1, 1))));
+        dated.add(reportRepository.save(report("Dated 3", LocalDate.of(2024, 1, 2))));
+    }
+
+    @Test
+    public void testDescendingCursorVisitsEveryRowOnce() throws Exception {
+        // Arrange
+        List<Long> expected = new ArrayList<>();
+        dated.stream()
+                .sorted(Comparator.comparing(Report::getDate).thenComparing(Report::getId).reversed())
+                .forEach(report -> expected.add(report.getId()));
+        undated.stream().map(Report::getId).sorted(Comparator.reverseOrder()).forEach(expected::add);
+
+        // Act
+        List<Long> visited = pageThrough("desc");
+
+        // Assert
+        assertEquals(expected, visited);
+    }
+
+    @Test
+    public void testAscendingCursorVisitsEveryRowOnce() throws Exception {
+        // Arrange
+        List<Long> expected = new ArrayList<>();
+        undated.stream().map(Report::getId).sorted().forEach(expected::add);
+        dated.stream()
+                .sorted(Comparator.comparing(Report::getDate).thenComparing(Report::getId))
+                .forEach(report -> expected.add(report.getId()));
+
+        // Act
+        List<Long> visited = pageThrough("asc");
+
+        // Assert
+        assertEquals(expected, visited);
+    }
+
+    // Theo nextCursor tới khi hasNext = false; giới hạn số trang để lỗi lặp vô hạn làm test fail thay vì treo
+    private List<Long> pageThrough(String sortDir) throws Exception {
+        List<Long> visited = new ArrayList<>();
+        String cursor = null;
+        for (int page = 0; page < 20; page++) {
+            MockHttpServletRequestBuilder request = get("/api/reports/paged")
+                    .header("Authorization", "Bearer " + jwtUtil.generateToken("cursor@example.com", USER_ID))
+                    .param("mode", "cursor")
+                    .param("size", String.valueOf(PAGE_SIZE))
+                    .param("sortDir", sortDir);
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            String body = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode response = objectMapper.readTree(body);
+            response.get("reports").forEach(report -> visited.add(report.get("id").asLong()));
+            if (!response.get("hasNext").asBoolean()) {
+                return visited;
+            }
+            cursor = response.get("nextCursor").asText();
+        }
+        throw new AssertionError("Cursor did not terminate, visited " + visited);
+    }
+
+    private static Report report(String title, LocalDate date) {
+        Report report = new Report();
+        report.setTitle(title);
+        report.setDate(date);
+        report.setTagId(1L);
+        report.setUserId(USER_ID);
+        return report;
+    }
+}
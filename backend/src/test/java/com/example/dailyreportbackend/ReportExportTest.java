@@ -0,0 +1,197 @@
+package com.example.dailyreportbackend;
+
+import com.example.dailyreportbackend.model.Report;
+import com.example.dailyreportbackend.repository.ReportRepository;
+import com.example.dailyreportbackend.security.JwtUtil;
+import com.example.dailyreportbackend.web.ExportConcurrencyLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// GET /api/reports/export trên H2: CSV đúng RFC 4180 với dấu phẩy, nháy kép, xuống dòng trong giá trị;
+// NDJSON ghi đủ mọi dòng qua nhiều lần flush; giới hạn số export đồng thời
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2-jpa")
+public class ReportExportTest {
+
+    private static final Long USER_ID = 601L;
+    // Nhiều hơn hai lần EXPORT_FLUSH_INTERVAL (500) của ReportServiceImpl
+    private static final int BULK_REPORTS = 1203;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReportRepository reportRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ExportConcurrencyLimiter exportConcurrencyLimiter;
+
+    @BeforeEach
+    public void setUp() {
+        reportRepository.deleteAll(reportRepository.findAll().stream()
+                .filter(report -> USER_ID.equals(report.getUserId()))
+                .toList());
+    }
+
+    @Test
+    public void testCsvQuotesCommasQuotesAndNewlines() throws Exception {
+        // Arrange
+        Report tricky = report("Họp, \"quan trọng\"", LocalDate.of(2024, 1, 2));
+        tricky.setContent("dòng 1\ndòng 2");
+        tricky.setIssue("a\r\nb");
+        tricky.setSolution("không có gì đặc biệt");
+        tricky.setProgress(50);
+        tricky.setRemainingHours(1.5);
+        tricky = reportRepository.save(tricky);
+
+        // Act
+        String body = export("csv");
+        List<List<String>> rows = parseCsv(body);
+
+        // Assert
+        assertEquals(2, rows.size());
+        assertEquals(List.of("id", "date", "title", "tagId", "progress", "remainingHours", "content", "issue", "solution"),
+                rows.get(0));
+        assertEquals(List.of(String.valueOf(tricky.getId()), "2024-01-02", "Họp, \"quan trọng\"", "1", "50", "1.5",
+                "dòng 1\ndòng 2", "a\r\nb", "không có gì đặc biệt"), rows.get(1));
+    }
+
+    @Test
+    public void testNdjsonStreamsEveryStoredRow() throws Exception {
+        // Arrange
+        List<Report> reports = new ArrayList<>();
+        for (int i = 0; i < BULK_REPORTS; i++) {
+            reports.add(report("Report " + i, i % 10 == 0 ? null : LocalDate.of(2024, 1, 1).plusDays(i % 365)));
+        }
+        reportRepository.saveAll(reports);
+        List<Long> storedIds = reportRepository.findAll().stream()
+                .filter(report -> USER_ID.equals(report.getUserId()))
+                .map(Report::getId)
+                .sorted()
+                .toList();
+
+        // Act
+        String body = export("ndjson");
+        List<Long> exportedIds = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            exportedIds.add(objectMapper.readTree(line).get("id").asLong());
+        }
+        exportedIds.sort(null);
+
+        // Assert
+        assertTrue(body.endsWith("\n"));
+        assertEquals(BULK_REPORTS, storedIds.size());
+        assertEquals(storedIds, exportedIds);
+    }
+
+    @Test
+    public void testRejectsExportWhenConcurrencyLimitReached() throws Exception {
+        // Arrange: chiếm hết permit như các export đang ghi
+        int held = 0;
+        while (exportConcurrencyLimiter.tryAcquire()) {
+            held++;
+        }
+
+        try {
+            // Act & Assert
+            mockMvc.perform(get("/api/reports/export")
+                            .header("Authorization", bearer())
+                            .param("format", "csv"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "5"));
+        } finally {
+            for (int i = 0; i < held; i++) {
+                exportConcurrencyLimiter.release();
+            }
+        }
+
+        // Permit trả lại khi export ghi xong, export sau đó chạy được
+        export("csv");
+        export("csv");
+    }
+
+    private String export(String format) throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/reports/export")
+                        .header("Authorization", bearer())
+                        .param("format", format))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private String bearer() {
+        return "Bearer " + jwtUtil.generateToken("export@example.com", USER_ID);
+    }
+
+    // Parser RFC 4180 tối giản: trường trong nháy kép có thể chứa dấu phẩy, xuống dòng và "" thay cho "
+    private static List<List<String>> parseCsv(String text) {
+        List<List<String>> rows = new ArrayList<>();
+        List<String> row = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                row.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                row.add(field.toString());
+                field.setLength(0);
+                rows.add(row);
+                row = new ArrayList<>();
+            } else {
+                field.append(c);
+            }
+        }
+        return rows;
+    }
+
+    private static Report report(String title, LocalDate date) {
+        Report report = new Report();
+        report.setTitle(title);
+        report.setDate(date);
+        report.setTagId(1L);
+        report.setUserId(USER_ID);
+        return report;
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.dailyreportbackend;
+
+import com.example.dailyreportbackend.dto.ReportBatchResult;
+import com.example.dailyreportbackend.dto.ReportIngestionStatus;
+import com.example.dailyreportbackend.exception.TooManyRequestsException;
+import com.example.dailyreportbackend.model.Report;
+import com.example.dailyreportbackend.service.ReportIngestionQueue;
+import com.example.dailyreportbackend.service.ReportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ReportIngestionQueueTest {
+
+    @TempDir
+    private Path journalDir;
+
+    private final ReportService reportService = mock(ReportService.class);
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    @SuppressWarnings("unchecked")
+    private final ObjectProvider<MeterRegistry> meterRegistry = mock(ObjectProvider.class);
+    // Tiêu đề của các báo cáo đã được "commit" qua createReports
+    private final List<String> written = new CopyOnWriteArrayList<>();
+    private ReportIngestionQueue queue;
+
+    @BeforeEach
+    public void setUp() {
+        when(reportService.createReports(anyList())).thenAnswer(invocation -> {
+            List<Report> reports = invocation.getArgument(0);
+            if (reports.stream().anyMatch(report -> report.getTitle().equals("poison"))) {
+                throw new DataIntegrityViolationException("Data too long for column 'title'");
+            }
+            List<ReportBatchResult> results = new ArrayList<>();
+            for (int i = 0; i < reports.size(); i++) {
+                written.add(reports.get(i).getTitle());
+                results.add(new ReportBatchResult(i, (long) written.size(), ReportBatchResult.CREATED, null));
+            }
+            return results;
+        });
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        if (queue != null) {
+            queue.shutdown();
+        }
+    }
+
+    @Test
+    public void testReplaysEntriesWithoutDoneLineAndSkipsTornLastLine() throws Exception {
+        // Arrange
+        Files.writeString(journalDir.resolve("report-ingestion.journal"), String.join("\n",
+                "{\"ticket\":\"t1\",\"report\":{\"userId\":1,\"title\":\"first\"}}",
+                "{\"ticket\":\"t2\",\"report\":{\"userId\":1,\"title\":\"second\"}}",
+                "{\"done\":[\"t1\"]}",
+                "{\"ticket\":\"t3\",\"report\":{\"userId\":1,\"title\":\"third\"}}",
+                "{\"ticket\":\"t4\",\"report\":{\"userI"), StandardCharsets.UTF_8);
+        queue = newQueue(10);
+
+        // Act
+        queue.start();
+        queue.startWriter();
+        awaitStatus("t3", ReportIngestionStatus.CREATED);
+
+        // Assert
+        assertEquals(List.of("second", "third"), written);
+        assertEquals(ReportIngestionStatus.CREATED, queue.getStatus("t2", 1L).getStatus());
+        assertNull(queue.getStatus("t4", 1L));
+    }
+
+    @Test
+    public void testTruncatesJournalOnceNothingIsPending() throws Exception {
+        // Arrange
+        queue = newQueue(10);
+        queue.start();
+        String ticket = queue.enqueue(report("first")).getTicket();
+        Path journal = journalDir.resolve("report-ingestion.journal");
+        assertTrue(Files.size(journal) > 0);
+
+        // Act
+        queue.startWriter();
+        awaitStatus(ticket, ReportIngestionStatus.CREATED);
+
+        // Assert
+        assertEquals(0, Files.size(journal));
+    }
+
+    @Test
+    public void testRejectsWithTooManyRequestsAtCapacity() throws Exception {
+        // Arrange
+        queue = newQueue(1);
+        queue.start();
+        queue.enqueue(report("first"));
+
+        // Act & Assert
+        assertThrows(TooManyRequestsException.class, () -> queue.enqueue(report("second")));
+    }
+
+    @Test
+    public void testPoisonReportIsRejectedWithoutBlockingTheBatch() throws Exception {
+        // Arrange
+        queue = newQueue(10);
+        queue.start();
+        String first = queue.enqueue(report("first")).getTicket();
+        String poison = queue.enqueue(report("poison")).getTicket();
+        String third = queue.enqueue(report("third")).getTicket();
+        String later = queue.enqueue(report("later")).getTicket();
+
+        // Act
+        queue.startWriter();
+        awaitStatus(later, ReportIngestionStatus.CREATED);
+
+        // Assert
+        assertEquals(ReportIngestionStatus.CREATED, queue.getStatus(first, 1L).getStatus());
+        assertEquals(ReportIngestionStatus.REJECTED, queue.getStatus(poison, 1L).getStatus());
+        assertEquals(ReportIngestionStatus.CREATED, queue.getStatus(third, 1L).getStatus());
+        assertEquals(List.of("first", "third", "later"), written);
+        assertEquals(0, Files.size(journalDir.resolve("report-ingestion.journal")));
+    }
+
+    @Test
+    public void testRetriesTransientFailures() throws Exception {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+        when(reportService.createReports(anyList())).thenAnswer(invocation -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new TransientDataAccessResourceException("Communications link failure");
+            }
+            return List.of(new ReportBatchResult(0, 1L, ReportBatchResult.CREATED, null));
+        });
+        queue = newQueue(10);
+        queue.start();
+        String ticket = queue.enqueue(report("first")).getTicket();
+
+        // Act
+        queue.startWriter();
+        awaitStatus(ticket, ReportIngestionStatus.CREATED);
+
+        // Assert
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    public void testRequiresJournalDirWhenEnabled() {
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> new ReportIngestionQueue(reportService, objectMapper,
+                true, 10, 10, 0, false, "", Duration.ofHours(1), meterRegistry));
+    }
+
+    private ReportIngestionQueue newQueue(int capacity) {
+        return new ReportIngestionQueue(reportService, objectMapper, true, capacity, 10, 0, false,
+                journalDir.toString(), Duration.ofHours(1), meterRegistry);
+    }
+
+    private void awaitStatus(String ticket, String status) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            ReportIngestionStatus current = queue.getStatus(ticket, 1L);
+            if (current != null && status.equals(current.getStatus())) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Ticket " + ticket + " did not reach " + status);
+    }
+
+    private static Report report(String title) {
+        Report report = new Report();
+        report.setUserId(1L);
+        report.setTitle(title);
+        return report;
+    }
+}
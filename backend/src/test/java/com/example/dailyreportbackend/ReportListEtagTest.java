@@ -0,0 +1,110 @@
+package com.example.dailyreportbackend;
+
+import com.example.dailyreportbackend.model.Report;
+import com.example.dailyreportbackend.repository.ReportRepository;
+import com.example.dailyreportbackend.security.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// ReportListEtagInterceptor + ReportVersionRegistry: 304 khi If-None-Match khớp, ETag đổi sau khi tạo/xóa báo cáo
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2-jpa")
+public class ReportListEtagTest {
+
+    private static final Long USER_ID = 701L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReportRepository reportRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String authorization;
+
+    @BeforeEach
+    public void setUp() {
+        authorization = "Bearer " + jwtUtil.generateToken("etag@example.com", USER_ID);
+    }
+
+    @Test
+    public void testMatchingIfNoneMatchReturns304() throws Exception {
+        // Arrange
+        String etag = listEtag();
+
+        // Act & Assert
+        mockMvc.perform(get("/api/reports")
+                        .header("Authorization", authorization)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+    }
+
+    @Test
+    public void testCreateAndDeleteChangeEtag() throws Exception {
+        // Arrange
+        String initial = listEtag();
+        Report report = new Report();
+        report.setTitle("ETag report");
+        report.setDate(LocalDate.of(2024, 3, 1));
+        report.setTagId(1L);
+
+        // Act
+        String body = mockMvc.perform(post("/api/reports")
+                        .header("Authorization", authorization)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(report)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Long id = objectMapper.readValue(body, Report.class).getId();
+        String afterCreate = modifiedEtag(initial);
+        mockMvc.perform(delete("/api/reports/{id}", id).header("Authorization", authorization))
+                .andExpect(status().isOk());
+        String afterDelete = modifiedEtag(afterCreate);
+
+        // Assert
+        assertNotEquals(initial, afterCreate);
+        assertNotEquals(afterCreate, afterDelete);
+        assertNotEquals(initial, afterDelete);
+        assertNotNull(id);
+    }
+
+    private String listEtag() throws Exception {
+        return mockMvc.perform(get("/api/reports").header("Authorization", authorization))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    // ETag cũ không còn khớp: trả 200 kèm ETag mới
+    private String modifiedEtag(String previous) throws Exception {
+        return mockMvc.perform(get("/api/reports")
+                        .header("Authorization", authorization)
+                        .header(HttpHeaders.IF_NONE_MATCH, previous))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.dailyreportbackend;
+
+import com.example.dailyreportbackend.model.Report;
+import com.example.dailyreportbackend.search.ReportSearchIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+
+import java.util.List;
+
+import static com.example.dailyreportbackend.TransactionTestSupport.inTransaction;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReportSearchIndexTest {
+
+    private Report report(Long id, Long userId, String title, String content) {
+        Report report = new Report();
+        report.setId(id);
+        report.setUserId(userId);
+        report.setTitle(title);
+        report.setContent(content);
+        return report;
+    }
+
+    @Test
+    public void testSearchRanksTitleMatchesFirst() {
+        // Arrange
+        ReportSearchIndex index = new ReportSearchIndex();
+        index.index(report(1L, 1L, "Họp nhóm", "Thảo luận về deploy"));
+        index.index(report(2L, 1L, "Deploy bản mới", "Cập nhật server"));
+        index.index(report(3L, 1L, "Viết tài liệu", "Không liên quan"));
+        index.markReady();
+
+        // Act
+        List<Long> result = index.search(1L, "DEPLOY");
+
+        // Assert
+        assertEquals(List.of(2L, 1L), result);
+    }
+
+    @Test
+    public void testSearchRequiresAllTermsAndMatchesPrefixes() {
+        // Arrange
+        ReportSearchIndex index = new ReportSearchIndex();
+        index.index(report(1L, 1L, "Fix login bug", null));
+        index.index(report(2L, 1L, "Fix layout", null));
+        index.index(report(3L, 2L, "Fix login bug", null));
+        index.markReady();
+
+        // Act
+        List<Long> result = index.search(1L, "fix log");
+
+        // Assert
+        assertEquals(List.of(1L), result);
+    }
+
+    @Test
+    public void testSearchMatchesSubstringsOfWordsInAnyOrder() {
+        // Arrange
+        ReportSearchIndex index = new ReportSearchIndex();
+        index.index(report(1L, 1L, "Update catalog", null));
+        index.index(report(2L, 1L, "Log rotation", null));
+        index.index(report(3L, 1L, "Fix login bug", null));
+        index.markReady();
+
+        // Act
+        List<Long> substring = index.search(1L, "log");
+        List<Long> anyOrder = index.search(1L, "bug fix");
+
+        // Assert
+        assertEquals(List.of(2L, 3L, 1L), substring);
+        assertEquals(List.of(3L), anyOrder);
+    }
+
+    @Test
+    public void testChangesInsideTransactionApplyOnlyAfterCommit() {
+        // Arrange
+        ReportSearchIndex index = new ReportSearchIndex();
+        index.markReady();
+
+        // Act
+        List<TransactionSynchronization> rolledBack = inTransaction(() -> index.index(report(1L, 1L, "Rolled back", null)));
+        List<TransactionSynchronization> committed = inTransaction(() -> index.index(report(2L, 1L, "Committed", null)));
+        List<Long> beforeCommit = index.search(1L, "committed");
+        rolledBack.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        committed.forEach(TransactionSynchronization::afterCommit);
+
+        // Assert
+        assertTrue(beforeCommit.isEmpty());
+        assertTrue(index.search(1L, "rolled").isEmpty());
+        assertEquals(List.of(2L), index.search(1L, "committed"));
+    }
+
+    @Test
+    public void testRemoveAndReindex() {
+        // Arrange
+        ReportSearchIndex index = new ReportSearchIndex();
+        index.index(report(1L, 1L, "Daily standup", null));
+        index.markReady();
+
+        // Act
+        index.index(report(1L, 1L, "Retrospective", null));
+        List<Long> afterUpdate = index.search(1L, "standup");
+        index.remove(1L, 1L);
+        List<Long> afterRemove = index.search(1L, "retrospective");
+
+        // Assert
+        assertTrue(afterUpdate.isEmpty());
+        assertTrue(afterRemove.isEmpty());
+        assertFalse(index.canSearch("   "));
+        assertTrue(index.canSearch("retro"));
+    }
+
+    @Test
+    public void testChangesCommittedDuringRebuildWinOverStalePages() {
+        // Arrange
+        ReportSearchIndex index = new ReportSearchIndex();
+        index.beginRebuild();
+
+        // Act: xóa 1 và sửa 2 commit trong lúc dựng lại, sau đó trang đọc trước đó mới được nạp
+        index.remove(1L, 1L);
+        index.index(report(2L, 1L, "Retrospective", null));
+        index.load(report(1L, 1L, "Deleted report", null));
+        index.load(report(2L, 1L, "Daily standup", null));
+        boolean searchableBeforeReady = index.canSearch("report");
+        index.markReady();
+
+        // Assert
+        assertFalse(searchableBeforeReady);
+        assertTrue(index.search(1L, "deleted").isEmpty());
+        assertTrue(index.search(1L, "standup").isEmpty());
+        assertEquals(List.of(2L), index.search(1L, "retrospective"));
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.dailyreportbackend;
+
+import com.example.dailyreportbackend.datasource.ReadYourWritesTracker;
+import com.example.dailyreportbackend.dto.ReportChangeEvent;
+import com.example.dailyreportbackend.dto.ReportSummary;
+import com.example.dailyreportbackend.repository.ReportArchiveRepository;
+import com.example.dailyreportbackend.repository.ReportRepository;
+import com.example.dailyreportbackend.search.ReportSearchIndex;
+import com.example.dailyreportbackend.search.ReportTagIndex;
+import com.example.dailyreportbackend.service.ReportStatsService;
+import com.example.dailyreportbackend.service.ReportVersionRegistry;
+import com.example.dailyreportbackend.service.impl.ReportServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReportServiceImplTest {
+
+    @Mock
+    private ReportRepository reportRepository;
+
+    @Mock
+    private ReportArchiveRepository reportArchiveRepository;
+
+    @Mock
+    private ReportStatsService reportStatsService;
+
+    @Mock
+    private ReportSearchIndex reportSearchIndex;
+
+    @Mock
+    private ReportTagIndex reportTagIndex;
+
+    @Mock
+    private ReportVersionRegistry reportVersionRegistry;
+
+    @Mock
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private ReportServiceImpl reportService;
+
+    @Test
+    public void testDeleteReportsInRangeDeletesInChunksAndSubtractsStats() {
+        // Arrange
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 1, 31);
+        List<ReportSummary> summaries = new ArrayList<>();
+        for (long id = 1; id <= 1001; id++) {
+            summaries.add(summary(id, from));
+        }
+        when(reportRepository.findSummariesByUserIdAndDateBetweenOrderByDateAscIdAsc(1L, from, to)).thenReturn(summaries);
+        when(reportRepository.bulkDeleteByIds(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+
+        // Act
+        int deleted = reportService.deleteReportsInRange(1L, from, to);
+
+        // Assert
+        assertEquals(1001, deleted);
+        verify(reportRepository, times(2)).bulkDeleteByIds(anyList());
+        verify(reportStatsService).recordSummariesDeleted(summaries);
+        verify(reportSearchIndex).remove(1L, 1001L);
+        verify(reportTagIndex).remove(1L, 1001L);
+        ArgumentCaptor<ReportChangeEvent> event = ArgumentCaptor.forClass(ReportChangeEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(ReportChangeEvent.DELETED, event.getValue().getType());
+        assertEquals(1001, event.getValue().getReportIds().size());
+    }
+
+    @Test
+    public void testDeleteReportsInRangeRejectsSpansLongerThanAYear() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> reportService.deleteReportsInRange(1L, LocalDate.of(2020, 1, 1), LocalDate.of(2024, 1, 1)));
+        verifyNoInteractions(reportRepository, reportStatsService);
+    }
+
+    @Test
+    public void testArchiveReportsBeforeCopiesThenDeletesAndKeepsStats() {
+        // Arrange
+        LocalDate cutoff = LocalDate.of(2024, 1, 1);
+        List<ReportSummary> summaries = List.of(summary(1L, cutoff.minusDays(2)), summary(2L, cutoff.minusDays(1)));
+        when(reportRepository.findSummariesByDateBeforeOrderByDateAscIdAsc(cutoff, PageRequest.of(0, 100))).thenReturn(summaries);
+        when(reportRepository.bulkDeleteByIds(List.of(1L, 2L))).thenReturn(2);
+
+        // Act
+        int archived = reportService.archiveReportsBefore(cutoff, 100);
+
+        // Assert
+        assertEquals(2, archived);
+        InOrder inOrder = inOrder(reportArchiveRepository, reportRepository);
+        inOrder.verify(reportArchiveRepository).copyFromReports(List.of(1L, 2L));
+        inOrder.verify(reportRepository).bulkDeleteByIds(List.of(1L, 2L));
+        verifyNoInteractions(reportStatsService);
+        verify(reportSearchIndex).remove(1L, 2L);
+    }
+
+    private ReportSummary summary(Long id, LocalDate date) {
+        return new ReportSummary(id, "Report " + id, date, null, null, 1L, null, null);
+    }
+}
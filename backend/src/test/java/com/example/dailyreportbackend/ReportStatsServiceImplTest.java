@@ -0,0 +1,130 @@
+package com.example.dailyreportbackend;
+
+import com.example.dailyreportbackend.dto.ReportStatsResponse;
+import com.example.dailyreportbackend.dto.ReportSummary;
+import com.example.dailyreportbackend.model.Report;
+import com.example.dailyreportbackend.model.ReportDailyStat;
+import com.example.dailyreportbackend.repository.ReportDailyStatRepository;
+import com.example.dailyreportbackend.service.impl.ReportStatsServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReportStatsServiceImplTest {
+
+    @Mock
+    private ReportDailyStatRepository reportDailyStatRepository;
+
+    @InjectMocks
+    private ReportStatsServiceImpl reportStatsService;
+
+    @Test
+    public void testRecordCreatedGroupsReportsOfSameDayAndTag() {
+        // Arrange
+        LocalDate day = LocalDate.of(2024, 3, 4);
+        List<Report> reports = List.of(
+                report(day, 2L, 40, 3.0),
+                report(day, 2L, 60, 1.0),
+                report(day, null, null, null));
+
+        // Act
+        reportStatsService.recordCreated(reports);
+
+        // Assert
+        verify(reportDailyStatRepository).upsertDelta(1L, day, 2L, 2, 100, 2, 4.0);
+        verify(reportDailyStatRepository).upsertDelta(1L, day, ReportDailyStat.NO_TAG, 1, 0, 0, 0.0);
+        verifyNoMoreInteractions(reportDailyStatRepository);
+    }
+
+    @Test
+    public void testRecordDeletedSubtractsAndCleansUp() {
+        // Arrange
+        LocalDate day = LocalDate.of(2024, 3, 4);
+
+        // Act
+        reportStatsService.recordDeleted(List.of(report(day, 2L, 40, 3.0)));
+
+        // Assert
+        verify(reportDailyStatRepository).upsertDelta(1L, day, 2L, -1, -40, -1, -3.0);
+        verify(reportDailyStatRepository).deleteIfEmpty(1L, day, 2L);
+    }
+
+    @Test
+    public void testRecordSummariesDeletedGroupsAndSkipsUndated() {
+        // Arrange
+        LocalDate day = LocalDate.of(2024, 3, 4);
+        List<ReportSummary> summaries = List.of(
+                summary(1L, day, 2L, 40, 3.0),
+                summary(2L, day, 2L, 60, 1.0),
+                summary(3L, null, 2L, 10, 1.0));
+
+        // Act
+        reportStatsService.recordSummariesDeleted(summaries);
+
+        // Assert
+        verify(reportDailyStatRepository).upsertDelta(1L, day, 2L, -2, -100, -2, -4.0);
+        verify(reportDailyStatRepository).deleteIfEmpty(1L, day, 2L);
+        verifyNoMoreInteractions(reportDailyStatRepository);
+    }
+
+    @Test
+    public void testGetStatsAggregatesByDayTagAndWeek() {
+        // Arrange
+        LocalDate from = LocalDate.of(2024, 3, 1);
+        LocalDate to = LocalDate.of(2024, 3, 31);
+        when(reportDailyStatRepository.findByUserIdAndDateBetweenOrderByDateAsc(1L, from, to)).thenReturn(List.of(
+                stat(LocalDate.of(2024, 3, 4), 2L, 2, 100, 2, 4.0),
+                stat(LocalDate.of(2024, 3, 6), ReportDailyStat.NO_TAG, 1, 0, 0, 1.5),
+                stat(LocalDate.of(2024, 3, 11), 2L, 1, 20, 1, 0.5)));
+
+        // Act
+        ReportStatsResponse stats = reportStatsService.getStats(1L, from, to);
+
+        // Assert
+        assertEquals(4, stats.getTotalReports());
+        assertEquals(3, stats.getDaily().size());
+        assertEquals(2, stats.getByTag().size());
+        assertNull(stats.getByTag().get(0).getTagId());
+        assertEquals(3, stats.getByTag().get(1).getReportCount());
+        assertEquals(40.0, stats.getByTag().get(1).getAverageProgress());
+        assertEquals(2, stats.getWeekly().size());
+        assertEquals(LocalDate.of(2024, 3, 4), stats.getWeekly().get(0).getWeekStart());
+        assertEquals(50.0, stats.getWeekly().get(0).getAverageProgress());
+    }
+
+    private Report report(LocalDate date, Long tagId, Integer progress, Double remainingHours) {
+        Report report = new Report();
+        report.setUserId(1L);
+        report.setDate(date);
+        report.setTagId(tagId);
+        report.setProgress(progress);
+        report.setRemainingHours(remainingHours);
+        return report;
+    }
+
+    private ReportSummary summary(Long id, LocalDate date, Long tagId, Integer progress, Double remainingHours) {
+        return new ReportSummary(id, "Report " + id, date, tagId, null, 1L, progress, remainingHours);
+    }
+
+    private ReportDailyStat stat(LocalDate date, long tagId, long count, long progressSum, long progressCount, double hours) {
+        ReportDailyStat stat = new ReportDailyStat();
+        stat.setUserId(1L);
+        stat.setDate(date);
+        stat.setTagId(tagId);
+        stat.setReportCount(count);
+        stat.setProgressSum(progressSum);
+        stat.setProgressCount(progressCount);
+        stat.setRemainingHoursSum(hours);
+        return stat;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.dailyreportbackend;
+
+import com.example.dailyreportbackend.model.Report;
+import com.example.dailyreportbackend.search.ReportTagIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.example.dailyreportbackend.TransactionTestSupport.inTransaction;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ReportTagIndexTest {
+
+    private Report report(Long id, Long userId, String date, Long... tagIds) {
+        Report report = new Report();
+        report.setId(id);
+        report.setUserId(userId);
+        report.setDate(date != null ? LocalDate.parse(date) : null);
+        report.setTagIds(List.of(tagIds));
+        return report;
+    }
+
+    @Test
+    public void testFilterMatchAllAndAny() {
+        // Arrange
+        ReportTagIndex index = new ReportTagIndex();
+        index.index(report(1L, 1L, "2024-01-01", 1L, 2L));
+        index.index(report(2L, 1L, "2024-01-02", 2L, 3L));
+        index.index(report(3L, 1L, "2024-01-03", 1L));
+        index.index(report(4L, 2L, "2024-01-04", 1L, 2L));
+
+        // Act
+        List<Long> all = index.newestFirst(1L, index.filter(1L, List.of(1L, 2L), true, null, null));
+        List<Long> any = index.newestFirst(1L, index.filter(1L, List.of(1L, 3L), false, null, null));
+
+        // Assert
+        assertEquals(List.of(1L), all);
+        assertEquals(List.of(3L, 2L, 1L), any);
+    }
+
+    @Test
+    public void testFilterByDateRangeExcludesUndatedReports() {
+        // Arrange
+        ReportTagIndex index = new ReportTagIndex();
+        index.index(report(1L, 1L, "2024-01-01", 1L));
+        index.index(report(2L, 1L, "2024-01-15", 1L));
+        index.index(report(3L, 1L, "2024-02-01", 1L));
+        index.index(report(4L, 1L, null, 1L));
+
+        // Act
+        List<Long> inRange = index.newestFirst(1L,
+                index.filter(1L, List.of(1L), true, LocalDate.parse("2024-01-01"), LocalDate.parse("2024-01-31")));
+        List<Long> noFilter = index.newestFirst(1L, index.filter(1L, List.of(), false, null, null));
+
+        // Assert
+        assertEquals(List.of(2L, 1L), inRange);
+        assertEquals(List.of(3L, 2L, 1L, 4L), noFilter);
+    }
+
+    @Test
+    public void testRemoveAndReindex() {
+        // Arrange
+        ReportTagIndex index = new ReportTagIndex();
+        index.index(report(1L, 1L, "2024-01-01", 1L, 2L));
+        index.index(report(2L, 1L, "2024-01-02", 2L));
+
+        // Act
+        index.remove(1L, 2L);
+        index.index(report(1L, 1L, "2024-01-01", 3L));
+
+        // Assert
+        assertEquals(List.of(), index.newestFirst(1L, index.filter(1L, List.of(2L), false, null, null)));
+        assertEquals(List.of(1L), index.newestFirst(1L, index.filter(1L, List.of(3L), false, null, null)));
+    }
+
+    @Test
+    public void testChangesInsideTransactionApplyOnlyAfterCommit() {
+        // Arrange
+        ReportTagIndex index = new ReportTagIndex();
+        index.index(report(1L, 1L, "2024-01-01", 1L));
+
+        // Act
+        List<TransactionSynchronization> rolledBack = inTransaction(() -> index.remove(1L, 1L));
+        List<TransactionSynchronization> committed = inTransaction(() -> index.index(report(2L, 1L, "2024-01-02", 1L)));
+        List<Long> beforeCommit = index.newestFirst(1L, index.filter(1L, List.of(1L), false, null, null));
+        rolledBack.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        committed.forEach(TransactionSynchronization::afterCommit);
+
+        // Assert
+        assertEquals(List.of(1L), beforeCommit);
+        assertEquals(List.of(2L, 1L), index.newestFirst(1L, index.filter(1L, List.of(1L), false, null, null)));
+    }
+
+    @Test
+    public void testChangesCommittedDuringRebuildWinOverStalePages() {
+        // Arrange
+        ReportTagIndex index = new ReportTagIndex();
+        index.beginRebuild();
+
+        // Act: xóa 1 và đổi tag của 2 commit trong lúc dựng lại, sau đó trang đọc trước đó mới được nạp
+        index.remove(1L, 1L);
+        index.index(report(2L, 1L, "2024-01-02", 3L));
+        index.load(report(1L, 1L, "2024-01-01", 1L));
+        index.load(report(2L, 1L, "2024-01-02", 1L));
+        index.markReady();
+
+        // Assert
+        assertEquals(List.of(), index.newestFirst(1L, index.filter(1L, List.of(1L), false, null, null)));
+        assertEquals(List.of(2L), index.newestFirst(1L, index.filter(1L, List.of(), false, null, null)));
+        assertEquals(List.of(2L), index.newestFirst(1L, index.filter(1L, List.of(3L), false, null, null)));
+    }
+}
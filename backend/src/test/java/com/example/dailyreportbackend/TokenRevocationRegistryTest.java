@@ -0,0 +1,75 @@
+package com.example.dailyreportbackend;
+
+import com.example.dailyreportbackend.security.JwtUtil;
+import com.example.dailyreportbackend.security.TokenRevocationRegistry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TokenRevocationRegistryTest {
+
+    private Claims claims(Long userId, long issuedAtMillis) {
+        Claims claims = Jwts.claims();
+        claims.put("userId", userId);
+        // iat trong JWT chỉ giữ phần giây
+        claims.setIssuedAt(new Date(issuedAtMillis / 1000 * 1000));
+        return claims;
+    }
+
+    @Test
+    public void testRevokesTokensIssuedInTheSameSecond() {
+        // Arrange
+        TokenRevocationRegistry registry = new TokenRevocationRegistry();
+        ReflectionTestUtils.setField(registry, "expiration", 86_400_000L);
+        long issuedAt = System.currentTimeMillis();
+
+        // Act
+        registry.revokeAll(1L);
+
+        // Assert
+        assertTrue(registry.isRevoked(claims(1L, issuedAt)));
+        assertFalse(registry.isRevoked(claims(1L, issuedAt + 2_000)));
+        assertFalse(registry.isRevoked(claims(2L, issuedAt)));
+    }
+
+    @Test
+    public void testAcceptsTokenIssuedInTheSameSecondAfterReset() {
+        // Arrange
+        TokenRevocationRegistry registry = new TokenRevocationRegistry();
+        ReflectionTestUtils.setField(registry, "expiration", 86_400_000L);
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "test-secret-key-for-revocation-registry-test");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86_400_000L);
+        // Đợi đầu một giây mới để token trước và sau mốc thu hồi chắc chắn cùng giây
+        long second = System.currentTimeMillis() / 1000;
+        while (System.currentTimeMillis() / 1000 == second) {
+            Thread.onSpinWait();
+        }
+        Claims beforeReset = jwtUtil.parseToken(jwtUtil.generateToken("user@example.com", 1L));
+        sleepAtLeastOneMilli();
+
+        // Act
+        registry.revokeAll(1L);
+        sleepAtLeastOneMilli();
+        Claims afterReset = jwtUtil.parseToken(jwtUtil.generateToken("user@example.com", 1L));
+
+        // Assert
+        assertEquals(beforeReset.getIssuedAt(), afterReset.getIssuedAt());
+        assertTrue(registry.isRevoked(beforeReset));
+        assertFalse(registry.isRevoked(afterReset));
+    }
+
+    private static void sleepAtLeastOneMilli() {
+        long start = System.currentTimeMillis();
+        while (System.currentTimeMillis() == start) {
+            Thread.onSpinWait();
+        }
+    }
+}
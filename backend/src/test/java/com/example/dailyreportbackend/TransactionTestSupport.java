@@ -0,0 +1,24 @@
+package com.example.dailyreportbackend;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+// Giả lập phạm vi transaction cho test các thay đổi chỉ áp dụng sau commit (TransactionCallbacks.afterCommit)
+final class TransactionTestSupport {
+
+    private TransactionTestSupport() {
+    }
+
+    // Chạy action trong phạm vi transaction giả lập, trả về các synchronization đã đăng ký
+    static List<TransactionSynchronization> inTransaction(Runnable action) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            action.run();
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+-- Các bảng báo cáo sau V1..V6 (db/migration), viết lại cho H2 chế độ MySQL
+CREATE TABLE report (
+    id BIGINT NOT NULL,
+    title VARCHAR(255),
+    content VARCHAR(255),
+    date_legacy VARCHAR(255),
+    `date` DATE NULL,
+    tag_id BIGINT,
+    tag_ids VARCHAR(255) NULL,
+    user_id BIGINT,
+    progress INTEGER,
+    remaining_hours FLOAT(53),
+    issue VARCHAR(255),
+    solution VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_report_user_date ON report (user_id, `date`);
+CREATE INDEX idx_report_user_tag_date ON report (user_id, tag_id, `date`);
+
+CREATE TABLE report_seq (
+    next_val BIGINT
+);
+
+INSERT INTO report_seq (next_val) VALUES (51);
+
+CREATE TABLE report_daily_stat (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    `date` DATE NOT NULL,
+    tag_id BIGINT NOT NULL,
+    report_count BIGINT NOT NULL DEFAULT 0,
+    progress_sum BIGINT NOT NULL DEFAULT 0,
+    progress_count BIGINT NOT NULL DEFAULT 0,
+    remaining_hours_sum FLOAT(53) NOT NULL DEFAULT 0,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_report_daily_stat UNIQUE (user_id, `date`, tag_id)
+);
@@ -1,9 +1,14 @@
 "use client";
 
-import React, { useState, useEffect } from "react";
+import React, { useState, useEffect, useRef } from "react";
 import { useRouter } from "next/navigation";
 import { useAuth } from "./context/AuthContext";
-import reportService, { Report, PagedResponse } from "./services/reportService";
+import reportService, {
+    Report,
+    ReportSummary,
+    PagedResponse,
+    ReportChangeEvent,
+} from "./services/reportService";
 import tagService, { Tag } from "./services/tagService";
 import { toast } from "react-toastify";
 import { format } from "date-fns";
@@ -13,7 +18,7 @@ import ReportModal from "./components/ReportModal";
 export default function Home() {
     const { user, isAuthenticated, loading } = useAuth();
     const router = useRouter();
-    const [reports, setReports] = useState<Report[]>([]);
+    const [reports, setReports] = useState<ReportSummary[]>([]);
     const [tags, setTags] = useState<Tag[]>([]);
     const [isLoading, setIsLoading] = useState(false);
     const [selectedDate, setSelectedDate] = useState<string>(
@@ -62,6 +67,64 @@ export default function Home() {
         reportsPerPage,
     ]);
 
+    // Cập nhật danh sách theo sự kiện từ /reports/stream thay vì tải lại; kết nối lại thì tải lại một lần
+    // vì có thể đã lỡ sự kiện. Dùng ref để handler luôn thấy bộ lọc và trang hiện tại mà không phải kết nối lại
+    const reportChangeHandler = useRef<(event: ReportChangeEvent) => void>(() => {});
+    const reconnectHandler = useRef<() => void>(() => {});
+    reportChangeHandler.current = (event: ReportChangeEvent) => {
+        if (event.type === "created") {
+            applyCreatedReports(event.reports ?? []);
+        } else {
+            applyDeletedReports(event.reportIds);
+        }
+    };
+    reconnectHandler.current = () => {
+        fetchReportsPaged();
+        fetchTotalReports();
+    };
+
+    useEffect(() => {
+        if (!isAuthenticated || !user) return;
+        return reportService.subscribeReportChanges(
+            (event) => reportChangeHandler.current(event),
+            () => reconnectHandler.current()
+        );
+    }, [isAuthenticated, user]);
+
+    const matchesFilter = (report: ReportSummary) =>
+        (!selectedDate || report.date === selectedDate) &&
+        (!selectedTagId ||
+            (report.tagIds ?? [report.tagId]).includes(selectedTagId));
+
+    const applyCreatedReports = (created: ReportSummary[]) => {
+        setTotalReports((count) => count + created.length);
+        const matching = created.filter(matchesFilter);
+        if (matching.length === 0) return;
+
+        const newTotal = totalItems + matching.length;
+        setTotalItems(newTotal);
+        setTotalPages(Math.ceil(newTotal / reportsPerPage));
+        // Chỉ trang đầu hiển thị báo cáo mới; giữ thứ tự ngày giảm dần như API, báo cáo cũ hơn rơi sang trang sau
+        if (currentPage === 0) {
+            setReports((current) =>
+                [...matching, ...current.filter((r) => !matching.some((m) => m.id === r.id))]
+                    .sort((a, b) => (b.date ?? "").localeCompare(a.date ?? "") || (b.id ?? 0) - (a.id ?? 0))
+                    .slice(0, reportsPerPage)
+            );
+        }
+    };
+
+    const applyDeletedReports = (reportIds: number[]) => {
+        setTotalReports((count) => Math.max(count - reportIds.length, 0));
+        const removed = reports.filter((r) => r.id && reportIds.includes(r.id));
+        if (removed.length === 0) return;
+
+        const newTotal = Math.max(totalItems - removed.length, 0);
+        setTotalItems(newTotal);
+        setTotalPages(Math.ceil(newTotal / reportsPerPage));
+        setReports((current) => current.filter((r) => !r.id || !reportIds.includes(r.id)));
+    };
+
     const fetchReportsPaged = async () => {
         if (!user) return;
 
@@ -128,10 +191,9 @@ export default function Home() {
             if (reports.length === 1 && currentPage > 0) {
                 setCurrentPage(currentPage - 1);
             } else {
-                fetchReportsPaged(); // Tải lại dữ liệu trang hiện tại
+                fetchReportsPaged(); // Tải lại để lấp chỗ trống từ trang sau
             }
-
-            fetchTotalReports();
+            // Tổng số báo cáo được cập nhật qua sự kiện deleted
         } catch (error) {
             console.error("Error deleting report:", error);
             toast.error("Xóa báo cáo thất bại");
@@ -161,10 +223,17 @@ export default function Home() {
     };
 
     // Xử lý xem chi tiết báo cáo
-    const handleViewReport = (report: Report) => {
-        console.log("Opening modal for report:", report);
-        setSelectedReport(report);
-        setShowModal(true);
+    const handleViewReport = async (report: ReportSummary) => {
+        if (!report.id) return;
+        try {
+            // Danh sách chỉ có dữ liệu rút gọn, tải nội dung đầy đủ khi mở chi tiết
+            const fullReport = await reportService.getReportById(report.id);
+            setSelectedReport(fullReport);
+            setShowModal(true);
+        } catch (error) {
+            console.error("Error fetching report:", error);
+            toast.error("Không thể tải chi tiết báo cáo");
+        }
     };
 
     // Xử lý phân trang
@@ -405,29 +474,6 @@ export default function Home() {
                                                 <div className="font-medium">
                                                     {report.title}
                                                 </div>
-                                                <div className="text-gray-600 mt-1 line-clamp-2">
-                                                    {report.content}
-                                                </div>
-                                                {report.issue && (
-                                                    <div className="mt-1">
-                                                        <span className="text-red-600 font-medium">
-                                                            Vấn đề:
-                                                        </span>{" "}
-                                                        {report.issue}
-                                                        {report.solution && (
-                                                            <span>
-                                                                {" "}
-                                                                →{" "}
-                                                                <span className="text-green-600 font-medium">
-                                                                    Giải pháp:
-                                                                </span>{" "}
-                                                                {
-                                                                    report.solution
-                                                                }
-                                                            </span>
-                                                        )}
-                                                    </div>
-                                                )}
                                             </td>
                                             <td className="px-6 py-4 whitespace-nowrap">
                                                 <span
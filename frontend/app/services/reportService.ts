@@ -1,4 +1,4 @@
-import api from "./api";
+import api, { JWT_STORAGE_KEY } from "./api";
 
 export interface Report {
     id?: number;
@@ -6,6 +6,8 @@ export interface Report {
     content: string;
     date: string;
     tagId: number;
+    // Tất cả tag của báo cáo, tagId là tag đầu tiên
+    tagIds?: number[];
     userId: number;
     progress: number;
     remainingHours: number;
@@ -13,17 +15,30 @@ export interface Report {
     solution?: string;
 }
 
-export interface PagedResponse {
-    reports: Report[];
+// Danh sách chỉ trả về dữ liệu rút gọn, nội dung đầy đủ lấy qua getReportById
+export type ReportSummary = Omit<Report, "content" | "issue" | "solution">;
+
+export interface PagedResponse<T = ReportSummary> {
+    reports: T[];
     currentPage: number;
     totalItems: number;
     totalPages: number;
 }
 
+// Sự kiện từ /reports/stream: created kèm bản rút gọn các báo cáo mới, deleted chỉ kèm id
+export interface ReportChangeEvent {
+    type: "created" | "deleted";
+    userId: number;
+    reports?: ReportSummary[];
+    reportIds: number[];
+}
+
+const STREAM_RECONNECT_DELAY_MS = 3000;
+
 const reportService = {
     // Lấy tất cả báo cáo của người dùng
-    getReports: async (userId: number): Promise<Report[]> => {
-        const response = await api.get<Report[]>(`/reports?userId=${userId}`);
+    getReports: async (userId: number): Promise<ReportSummary[]> => {
+        const response = await api.get<ReportSummary[]>(`/reports?userId=${userId}`);
         return response.data;
     },
 
@@ -31,19 +46,32 @@ const reportService = {
     getReportsByDate: async (
         userId: number,
         date: string
-    ): Promise<Report[]> => {
-        const response = await api.get<Report[]>(
+    ): Promise<ReportSummary[]> => {
+        const response = await api.get<ReportSummary[]>(
             `/reports?userId=${userId}&date=${date}`
         );
         return response.data;
     },
 
+    // Lấy báo cáo trong khoảng ngày (yyyy-MM-dd, gồm cả hai đầu), dùng cho lịch tuần/tháng thay vì gọi từng ngày
+    getReportsInRange: async (
+        userId: number,
+        from: string,
+        to: string,
+        tagId?: number
+    ): Promise<ReportSummary[]> => {
+        let url = `/reports/range?userId=${userId}&from=${from}&to=${to}`;
+        if (tagId) url += `&tagId=${tagId}`;
+        const response = await api.get<ReportSummary[]>(url);
+        return response.data;
+    },
+
     // Lấy báo cáo theo tag
     getReportsByTag: async (
         userId: number,
         tagId: number
-    ): Promise<Report[]> => {
-        const response = await api.get<Report[]>(
+    ): Promise<ReportSummary[]> => {
+        const response = await api.get<ReportSummary[]>(
             `/reports?userId=${userId}&tagId=${tagId}`
         );
         return response.data;
@@ -99,13 +127,36 @@ const reportService = {
         searchTerm: string,
         page: number = 0,
         size: number = 5
-    ): Promise<PagedResponse> => {
-        const response = await api.get<PagedResponse>(
+    ): Promise<PagedResponse<Report>> => {
+        const response = await api.get<PagedResponse<Report>>(
             `/reports/search/paged?userId=${userId}&searchTerm=${searchTerm}&page=${page}&size=${size}`
         );
         return response.data;
     },
 
+    // Lọc theo nhiều tag (match "all": có đủ các tag, "any": có ít nhất một tag), khoảng ngày và từ khóa
+    filterReports: async (
+        userId: number,
+        filter: {
+            tagIds?: number[];
+            match?: "all" | "any";
+            from?: string;
+            to?: string;
+            keyword?: string;
+        },
+        page: number = 0,
+        size: number = 5
+    ): Promise<PagedResponse> => {
+        let url = `/reports/filter?userId=${userId}&page=${page}&size=${size}`;
+        if (filter.tagIds && filter.tagIds.length > 0) url += `&tagIds=${filter.tagIds.join(",")}`;
+        if (filter.match) url += `&match=${filter.match}`;
+        if (filter.from) url += `&from=${filter.from}`;
+        if (filter.to) url += `&to=${filter.to}`;
+        if (filter.keyword) url += `&keyword=${encodeURIComponent(filter.keyword)}`;
+        const response = await api.get<PagedResponse>(url);
+        return response.data;
+    },
+
     // Lấy một báo cáo theo ID
     getReportById: async (id: number): Promise<Report> => {
         const response = await api.get<Report>(`/reports/${id}`);
@@ -130,6 +181,78 @@ const reportService = {
     deleteReport: async (id: number): Promise<void> => {
         await api.delete(`/reports/${id}`);
     },
+
+    // Xóa nhiều báo cáo theo danh sách id, trả về số báo cáo đã xóa
+    deleteReports: async (ids: number[]): Promise<number> => {
+        const response = await api.delete<{ deleted: number }>(
+            `/reports?ids=${ids.join(",")}`
+        );
+        return response.data.deleted;
+    },
+
+    // Theo dõi thay đổi báo cáo qua SSE. Dùng fetch thay cho EventSource vì EventSource không gửi được header Authorization.
+    // Mất kết nối (server đóng khi client đọc chậm, timeout) thì tự kết nối lại và gọi onReconnect để tải lại danh sách.
+    // Trả về hàm hủy theo dõi
+    subscribeReportChanges: (
+        onChange: (event: ReportChangeEvent) => void,
+        onReconnect?: () => void
+    ): (() => void) => {
+        const controller = new AbortController();
+        let connectedBefore = false;
+
+        const connect = async () => {
+            while (!controller.signal.aborted) {
+                try {
+                    const response = await fetch(`${api.defaults.baseURL}/reports/stream`, {
+                        headers: {
+                            Accept: "text/event-stream",
+                            Authorization: `Bearer ${localStorage.getItem(JWT_STORAGE_KEY) ?? ""}`,
+                        },
+                        signal: controller.signal,
+                    });
+                    if (response.status === 401 || response.status === 403) {
+                        return;
+                    }
+                    if (response.ok && response.body) {
+                        if (connectedBefore && onReconnect) onReconnect();
+                        connectedBefore = true;
+                        await readEvents(response.body, onChange);
+                    }
+                } catch (error) {
+                    if (controller.signal.aborted) return;
+                    console.error("Report stream error:", error);
+                }
+                await new Promise((resolve) => setTimeout(resolve, STREAM_RECONNECT_DELAY_MS));
+            }
+        };
+        connect();
+        return () => controller.abort();
+    },
+};
+
+// Đọc từng sự kiện SSE (các dòng "event:"/"data:", kết thúc bằng dòng trống), bỏ qua comment heartbeat
+const readEvents = async (
+    body: ReadableStream<Uint8Array>,
+    onChange: (event: ReportChangeEvent) => void
+) => {
+    const reader = body.pipeThrough(new TextDecoderStream()).getReader();
+    let buffer = "";
+    let data = "";
+    for (;;) {
+        const { value, done } = await reader.read();
+        if (done) return;
+        buffer += value;
+        const lines = buffer.split(/\r?\n/);
+        buffer = lines.pop() ?? "";
+        for (const line of lines) {
+            if (line.startsWith("data:")) {
+                data += line.slice(5);
+            } else if (line === "" && data) {
+                onChange(JSON.parse(data) as ReportChangeEvent);
+                data = "";
+            }
+        }
+    }
 };
 
 export default reportService;